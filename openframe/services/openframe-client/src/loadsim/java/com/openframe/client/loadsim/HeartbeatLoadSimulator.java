@@ -0,0 +1,423 @@
+package com.openframe.client.loadsim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.openframe.client.listener.ClientConnectionListener;
+import com.openframe.client.listener.MachineHeartbeatListener;
+import com.openframe.client.listener.ToolConnectionListener;
+import com.openframe.client.listener.ToolConnectionPullListener;
+import com.openframe.client.service.MachineHeartbeatTable;
+import com.openframe.client.service.MachineLivenessIndex;
+import com.openframe.client.service.MachineStatusService;
+import com.openframe.client.service.MachineTagEventService;
+import com.openframe.client.service.NatsTopicMachineIdExtractor;
+import com.openframe.client.service.ToolConnectionService;
+import com.openframe.client.service.agentregistration.transformer.ToolAgentIdTransformerService;
+import com.openframe.data.document.device.DeviceStatus;
+import com.openframe.data.document.device.Machine;
+import com.openframe.data.document.device.MachineTag;
+import com.openframe.data.document.tool.Tag;
+import com.openframe.data.document.tool.ToolConnection;
+import com.openframe.data.repository.device.MachineRepository;
+import com.openframe.data.repository.tool.ToolConnectionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nats.client.Connection;
+import io.nats.client.Dispatcher;
+import io.nats.client.JetStreamManagement;
+import io.nats.client.Nats;
+import io.nats.client.Options;
+import io.nats.client.api.ConsumerInfo;
+import io.nats.client.api.StorageType;
+import io.nats.client.api.StreamConfiguration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Load harness for a single openframe-client instance: simulates N machines publishing
+ * {@code machine.{id}.heartbeat}, {@code machine.{id}.tool-connection} and client connect/disconnect events
+ * at configurable rates, and reports throughput, lag and Mongo operation counts of MachineHeartbeatListener,
+ * ToolConnectionListener and ClientConnectionListener.
+ * <p>
+ * The listeners and services are the production classes wired by hand against NATS (JetStream enabled) and a
+ * Mongo replica set started with Testcontainers, or against {@code -Dsim.natsUrl} / {@code -Dsim.mongoUrl}.
+ * Kafka publishing of device events is replaced by a counter, and the Spring Cloud Stream binder that feeds
+ * ClientConnectionListener is replaced by a plain NATS subscription.
+ * {@code -Dsim.toolConnectionPull=true} runs ToolConnectionPullListener instead of the push listener.
+ * <p>
+ * Run from the repository root:
+ * <pre>
+ * mvn -P load-sim -pl openframe/services/openframe-client test-compile exec:exec \
+ *     -Dsim.args="-Dsim.machines=20000 -Dsim.heartbeatInterval=PT5S -Dsim.duration=PT2M"
+ * </pre>
+ */
+public class HeartbeatLoadSimulator {
+
+    private static final String DATABASE = "openframe";
+    private static final String TOOL_CONNECTION_STREAM = "TOOL_CONNECTIONS";
+    private static final String TOOL_CONNECTION_SUBJECT = "machine.*.tool-connection";
+    // Durable names used by ToolConnectionListener and ToolConnectionPullListener
+    private static final String TOOL_CONNECTION_PUSH_CONSUMER = "tool-connection-processor-v2";
+    private static final String TOOL_CONNECTION_PULL_CONSUMER = "tool-connection-processor-pull";
+    private static final String CONNECTED_SUBJECT = "sim.client.connected";
+    private static final String DISCONNECTED_SUBJECT = "sim.client.disconnected";
+    private static final Duration TICK = Duration.ofMillis(50);
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+    private static final int SEED_BATCH = 1_000;
+
+    private final SimulationSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoOperationCounter mongoOperations = new MongoOperationCounter();
+    private final CountingMachineTagEventService deviceEvents = new CountingMachineTagEventService();
+
+    private final AtomicLong heartbeatsPublished = new AtomicLong();
+    private final AtomicLong toolConnectionsPublished = new AtomicLong();
+    private final AtomicLong connectionEventsPublished = new AtomicLong();
+    private final LongAdder connectionEventsFailed = new LongAdder();
+    private final Timer connectionEventLag;
+    private final String toolConnectionConsumer;
+
+    private HeartbeatLoadSimulator(SimulationSettings settings) {
+        this.settings = settings;
+        this.toolConnectionConsumer = settings.toolConnectionPull() ? TOOL_CONNECTION_PULL_CONSUMER : TOOL_CONNECTION_PUSH_CONSUMER;
+        this.connectionEventLag = Timer.builder("sim.connection-event.lag").register(meterRegistry);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationSettings settings = SimulationSettings.fromSystemProperties();
+        List<AutoCloseable> containers = new ArrayList<>();
+        try {
+            String natsUrl = settings.natsUrl().isEmpty() ? startNats(containers) : settings.natsUrl();
+            String mongoUrl = settings.mongoUrl().isEmpty() ? startMongo(containers) : settings.mongoUrl();
+            new HeartbeatLoadSimulator(settings).run(natsUrl, mongoUrl);
+        } finally {
+            for (AutoCloseable container : containers) {
+                container.close();
+            }
+        }
+    }
+
+    private static String startNats(List<AutoCloseable> containers) {
+        GenericContainer<?> nats = new GenericContainer<>(DockerImageName.parse("nats:2.10"))
+                .withCommand("-js")
+                .withExposedPorts(4222)
+                .waitingFor(Wait.forLogMessage(".*Server is ready.*", 1));
+        nats.start();
+        containers.add(nats);
+        return "nats://" + nats.getHost() + ":" + nats.getMappedPort(4222);
+    }
+
+    private static String startMongo(List<AutoCloseable> containers) {
+        MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        mongo.start();
+        containers.add(mongo);
+        return mongo.getReplicaSetUrl(DATABASE);
+    }
+
+    private void run(String natsUrl, String mongoUrl) throws Exception {
+        MongoClientSettings mongoSettings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongoUrl))
+                .addCommandListener(mongoOperations)
+                .build();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        try (MongoClient mongoClient = MongoClients.create(mongoSettings);
+             Connection nats = Nats.connect(Options.builder().server(natsUrl).build())) {
+
+            MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+            seedMachines(mongoTemplate);
+            createToolConnectionStream(nats.jetStreamManagement());
+
+            MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+            MachineRepository machineRepository = repositories.getRepository(MachineRepository.class);
+            ToolConnectionRepository toolConnectionRepository = repositories.getRepository(ToolConnectionRepository.class);
+            NatsTopicMachineIdExtractor machineIdExtractor = new NatsTopicMachineIdExtractor();
+
+            MachineHeartbeatTable heartbeatTable = new MachineHeartbeatTable(mongoTemplate, true);
+            MachineStatusService machineStatusService = new MachineStatusService(machineRepository, mongoTemplate,
+                    deviceEvents, heartbeatTable, new MachineLivenessIndex(16));
+            ToolConnectionService toolConnectionService = new ToolConnectionService(toolConnectionRepository,
+                    machineRepository, new ToolAgentIdTransformerService(List.of()));
+
+            MachineHeartbeatListener heartbeatListener = new MachineHeartbeatListener(nats, machineStatusService,
+                    machineIdExtractor, meterRegistry, settings.heartbeatQueueCapacity(), settings.heartbeatWorkers(), Long.MAX_VALUE);
+            Runnable stopToolConnections;
+            if (settings.toolConnectionPull()) {
+                ToolConnectionPullListener listener = new ToolConnectionPullListener(nats, objectMapper, toolConnectionService,
+                        machineIdExtractor, settings.toolConnectionFetchSize(), settings.toolConnectionMaxAckPending(), Duration.ofSeconds(1));
+                listener.subscribeToToolConnections();
+                stopToolConnections = listener::cleanup;
+            } else {
+                ToolConnectionListener listener = new ToolConnectionListener(nats, objectMapper, toolConnectionService, machineIdExtractor);
+                listener.subscribeToToolConnections();
+                stopToolConnections = listener::cleanup;
+            }
+            ClientConnectionListener clientConnectionListener = new ClientConnectionListener(objectMapper, machineStatusService);
+            Dispatcher connectionDispatcher = subscribeConnectionEvents(nats, clientConnectionListener);
+
+            heartbeatListener.subscribeToMachineHeartbeats();
+            scheduler.scheduleWithFixedDelay(heartbeatTable::flush, 5, 5, TimeUnit.SECONDS);
+
+            mongoOperations.reset();
+            Instant start = Instant.now();
+            Publisher publisher = new Publisher(nats);
+            scheduler.scheduleAtFixedRate(publisher, 0, TICK.toMillis(), TimeUnit.MILLISECONDS);
+            System.out.printf("Simulating %d machines: %.0f heartbeats/s, %.1f tool connections/s, %.1f connection events/s for %s%n",
+                    settings.machines(), settings.heartbeatsPerSecond(), settings.toolConnectionsPerSecond(),
+                    settings.connectionEventsPerSecond(), settings.duration());
+
+            Instant end = start.plus(settings.duration());
+            while (Instant.now().isBefore(end)) {
+                Thread.sleep(Math.min(PROGRESS_INTERVAL.toMillis(), Math.max(1, Duration.between(Instant.now(), end).toMillis())));
+                printProgress(start, nats.jetStreamManagement());
+            }
+            publisher.stop();
+            Instant publishEnd = Instant.now();
+            awaitDrain(nats.jetStreamManagement());
+            heartbeatTable.flush();
+
+            printReport(Duration.between(start, publishEnd), Duration.between(start, Instant.now()),
+                    mongoTemplate, nats.jetStreamManagement());
+
+            connectionDispatcher.drain(Duration.ofSeconds(5));
+            heartbeatListener.cleanup();
+            stopToolConnections.run();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void seedMachines(MongoTemplate mongoTemplate) {
+        mongoTemplate.remove(new Query(), Machine.class);
+        mongoTemplate.remove(new Query(), ToolConnection.class);
+        List<Machine> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < settings.machines(); i++) {
+            Machine machine = new Machine();
+            machine.setMachineId(machineId(i));
+            machine.setStatus(DeviceStatus.OFFLINE);
+            batch.add(machine);
+            if (batch.size() == SEED_BATCH) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insertAll(batch);
+        }
+    }
+
+    private void createToolConnectionStream(JetStreamManagement jsm) throws Exception {
+        try {
+            jsm.deleteStream(TOOL_CONNECTION_STREAM);
+        } catch (Exception e) {
+            // stream did not exist
+        }
+        jsm.addStream(StreamConfiguration.builder()
+                .name(TOOL_CONNECTION_STREAM)
+                .subjects(TOOL_CONNECTION_SUBJECT)
+                .storageType(StorageType.Memory)
+                .build());
+    }
+
+    /**
+     * Stand-in for the Spring Cloud Stream NATS binder bindings of machineConnectedConsumer / machineDisconnectionConsumer.
+     */
+    private Dispatcher subscribeConnectionEvents(Connection nats, ClientConnectionListener listener) {
+        Consumer<String> connected = listener.machineConnectedConsumer();
+        Consumer<String> disconnected = listener.machineDisconnectionConsumer();
+        Dispatcher dispatcher = nats.createDispatcher();
+        dispatcher.subscribe(CONNECTED_SUBJECT, message -> handleConnectionEvent(connected, message.getData()));
+        dispatcher.subscribe(DISCONNECTED_SUBJECT, message -> handleConnectionEvent(disconnected, message.getData()));
+        return dispatcher;
+    }
+
+    private void handleConnectionEvent(Consumer<String> consumer, byte[] data) {
+        String payload = new String(data, StandardCharsets.UTF_8);
+        try {
+            consumer.accept(payload);
+            Instant published = Instant.parse(objectMapper.readTree(payload).path("timestamp").asText());
+            connectionEventLag.record(Duration.between(published, Instant.now()));
+        } catch (Exception e) {
+            connectionEventsFailed.increment();
+        }
+    }
+
+    private void awaitDrain(JetStreamManagement jsm) throws Exception {
+        Instant deadline = Instant.now().plus(settings.drainTimeout());
+        while (Instant.now().isBefore(deadline)) {
+            ConsumerInfo consumer = jsm.getConsumerInfo(TOOL_CONNECTION_STREAM, toolConnectionConsumer);
+            double queueDepth = meterRegistry.get("client.heartbeat.queue.depth").gauge().value();
+            if (queueDepth == 0 && consumer.getNumPending() == 0 && consumer.getNumAckPending() == 0) {
+                return;
+            }
+            Thread.sleep(500);
+        }
+        System.out.printf("Backlog not drained within %s%n", settings.drainTimeout());
+    }
+
+    private void printProgress(Instant start, JetStreamManagement jsm) throws Exception {
+        ConsumerInfo consumer = jsm.getConsumerInfo(TOOL_CONNECTION_STREAM, toolConnectionConsumer);
+        Timer lag = meterRegistry.get("client.heartbeat.lag").timer();
+        System.out.printf("[%3ds] heartbeats published=%d processed=%d queue=%.0f lag(mean)=%.1fms | tool connections pending=%d ackPending=%d | mongo ops=%d%n",
+                Duration.between(start, Instant.now()).toSeconds(),
+                heartbeatsPublished.get(),
+                meterRegistry.get("client.heartbeat.processing").timer().count(),
+                meterRegistry.get("client.heartbeat.queue.depth").gauge().value(),
+                lag.mean(TimeUnit.MILLISECONDS),
+                consumer.getNumPending(),
+                consumer.getNumAckPending(),
+                mongoOperations.snapshot().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private void printReport(Duration publishing, Duration total, MongoTemplate mongoTemplate, JetStreamManagement jsm) throws Exception {
+        double seconds = total.toMillis() / 1_000.0;
+        Timer heartbeatLag = meterRegistry.get("client.heartbeat.lag").timer();
+        Timer heartbeatProcessing = meterRegistry.get("client.heartbeat.processing").timer();
+        ConsumerInfo consumer = jsm.getConsumerInfo(TOOL_CONNECTION_STREAM, toolConnectionConsumer);
+        long toolConnections = mongoTemplate.count(new Query(), ToolConnection.class);
+        Map<String, Long> operations = mongoOperations.snapshot();
+        long totalOperations = operations.values().stream().mapToLong(Long::longValue).sum();
+
+        System.out.printf("%n=== Simulation report: %d machines, published for %s, drained after %s ===%n",
+                settings.machines(), publishing, total);
+        System.out.printf("MachineHeartbeatListener: published=%d received=%.0f processed=%d (%.0f/s) superseded=%.0f rejected=%.0f failed=%.0f%n",
+                heartbeatsPublished.get(),
+                meterRegistry.get("client.heartbeat.received").counter().count(),
+                heartbeatProcessing.count(),
+                heartbeatProcessing.count() / seconds,
+                meterRegistry.get("client.heartbeat.dropped").tag("reason", "superseded").counter().count(),
+                meterRegistry.get("client.heartbeat.dropped").tag("reason", "queue_full").counter().count(),
+                meterRegistry.get("client.heartbeat.failed").counter().count());
+        System.out.printf("  queue lag mean=%.1fms max=%.1fms, processing mean=%.2fms max=%.1fms%n",
+                heartbeatLag.mean(TimeUnit.MILLISECONDS), heartbeatLag.max(TimeUnit.MILLISECONDS),
+                heartbeatProcessing.mean(TimeUnit.MILLISECONDS), heartbeatProcessing.max(TimeUnit.MILLISECONDS));
+        System.out.printf("%s: published=%d stored=%d (%.1f/s) pending=%d ackPending=%d redelivered=%d%n",
+                settings.toolConnectionPull() ? "ToolConnectionPullListener" : "ToolConnectionListener",
+                toolConnectionsPublished.get(), toolConnections, toolConnections / seconds,
+                consumer.getNumPending(), consumer.getNumAckPending(), consumer.getRedelivered());
+        System.out.printf("ClientConnectionListener: published=%d processed=%d failed=%d lag mean=%.1fms max=%.1fms%n",
+                connectionEventsPublished.get(), connectionEventLag.count(), connectionEventsFailed.sum(),
+                connectionEventLag.mean(TimeUnit.MILLISECONDS), connectionEventLag.max(TimeUnit.MILLISECONDS));
+        System.out.printf("Device events published: %d%n", deviceEvents.published.sum());
+        System.out.printf("Mongo operations: total=%d (%.0f/s) %s%n", totalOperations, totalOperations / seconds, operations);
+    }
+
+    private static String machineId(int index) {
+        return "sim-%06d".formatted(index);
+    }
+
+    /**
+     * Publishes each tick's share of every event rate; fractional events carry over to the next tick.
+     */
+    private final class Publisher implements Runnable {
+
+        private final Connection nats;
+        private volatile boolean stopped;
+        private double heartbeatCarry;
+        private double toolConnectionCarry;
+        private double connectionEventCarry;
+        private int nextHeartbeat;
+        private int nextToolConnection;
+
+        private Publisher(Connection nats) {
+            this.nats = nats;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                return;
+            }
+            double tickSeconds = TICK.toMillis() / 1_000.0;
+            heartbeatCarry += settings.heartbeatsPerSecond() * tickSeconds;
+            toolConnectionCarry += settings.toolConnectionsPerSecond() * tickSeconds;
+            connectionEventCarry += settings.connectionEventsPerSecond() * tickSeconds;
+
+            for (; heartbeatCarry >= 1; heartbeatCarry--) {
+                nats.publish("machine." + machineId(nextHeartbeat) + ".heartbeat", new byte[0]);
+                nextHeartbeat = (nextHeartbeat + 1) % settings.machines();
+                heartbeatsPublished.incrementAndGet();
+            }
+            for (; toolConnectionCarry >= 1; toolConnectionCarry--) {
+                String machineId = machineId(nextToolConnection);
+                ObjectNode message = objectMapper.createObjectNode()
+                        .put("toolType", "MESHCENTRAL")
+                        .put("agentToolId", "node//" + machineId);
+                nats.publish("machine." + machineId + ".tool-connection", message.toString().getBytes(StandardCharsets.UTF_8));
+                nextToolConnection = (nextToolConnection + 1) % settings.machines();
+                toolConnectionsPublished.incrementAndGet();
+            }
+            for (; connectionEventCarry >= 1; connectionEventCarry--) {
+                String machineId = machineId(ThreadLocalRandom.current().nextInt(settings.machines()));
+                ObjectNode event = objectMapper.createObjectNode();
+                event.putObject("client").put("name", machineId);
+                event.put("timestamp", Instant.now().toString());
+                String subject = ThreadLocalRandom.current().nextBoolean() ? CONNECTED_SUBJECT : DISCONNECTED_SUBJECT;
+                nats.publish(subject, event.toString().getBytes(StandardCharsets.UTF_8));
+                connectionEventsPublished.incrementAndGet();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Replaces the Kafka-backed device event publisher; only counts the machines that would be published.
+     */
+    private static final class CountingMachineTagEventService implements MachineTagEventService {
+
+        private final LongAdder published = new LongAdder();
+
+        @Override
+        public void processMachineSave(Machine machine) {
+            published.increment();
+        }
+
+        @Override
+        public void processMachineSaveAll(Iterable<Machine> machines) {
+            machines.forEach(this::processMachineSave);
+        }
+
+        @Override
+        public void processMachineTagSave(MachineTag machineTag) {
+        }
+
+        @Override
+        public void processMachineTagSaveAll(Iterable<MachineTag> machineTags) {
+        }
+
+        @Override
+        public void processTagSave(Tag tag) {
+        }
+
+        @Override
+        public void processTagSaveAll(Iterable<Tag> tags) {
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.openframe.client.loadsim;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the Mongo commands issued by the services under test, by command name.
+ * Driver housekeeping (handshakes, session and cursor management) is not counted.
+ */
+class MongoOperationCounter implements CommandListener {
+
+    private static final Set<String> IGNORED = Set.of("hello", "isMaster", "ismaster", "ping", "buildInfo",
+            "endSessions", "killCursors", "saslStart", "saslContinue");
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!IGNORED.contains(event.getCommandName())) {
+            counts.computeIfAbsent(event.getCommandName(), name -> new LongAdder()).increment();
+        }
+    }
+
+    Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((name, count) -> snapshot.put(name, count.sum()));
+        return snapshot;
+    }
+
+    void reset() {
+        counts.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package com.openframe.client.loadsim;
+
+import java.time.Duration;
+
+/**
+ * Load profile of a simulation run, read from {@code -Dsim.*} system properties.
+ * Leaving natsUrl / mongoUrl empty starts NATS and Mongo in containers.
+ */
+record SimulationSettings(int machines,
+                          Duration heartbeatInterval,
+                          double toolConnectionsPerSecond,
+                          double connectionEventsPerSecond,
+                          Duration duration,
+                          Duration drainTimeout,
+                          int heartbeatWorkers,
+                          int heartbeatQueueCapacity,
+                          boolean toolConnectionPull,
+                          int toolConnectionFetchSize,
+                          int toolConnectionMaxAckPending,
+                          String natsUrl,
+                          String mongoUrl) {
+
+    static SimulationSettings fromSystemProperties() {
+        return new SimulationSettings(
+                Integer.getInteger("sim.machines", 10_000),
+                Duration.parse(System.getProperty("sim.heartbeatInterval", "PT5S")),
+                Double.parseDouble(System.getProperty("sim.toolConnectionsPerSecond", "50")),
+                Double.parseDouble(System.getProperty("sim.connectionEventsPerSecond", "20")),
+                Duration.parse(System.getProperty("sim.duration", "PT60S")),
+                Duration.parse(System.getProperty("sim.drainTimeout", "PT30S")),
+                Integer.getInteger("sim.heartbeatWorkers", 32),
+                Integer.getInteger("sim.heartbeatQueueCapacity", 50_000),
+                Boolean.getBoolean("sim.toolConnectionPull"),
+                Integer.getInteger("sim.toolConnectionFetchSize", 100),
+                Integer.getInteger("sim.toolConnectionMaxAckPending", 1_000),
+                System.getProperty("sim.natsUrl", ""),
+                System.getProperty("sim.mongoUrl", ""));
+    }
+
+    double heartbeatsPerSecond() {
+        return machines * 1_000.0 / heartbeatInterval.toMillis();
+    }
+}
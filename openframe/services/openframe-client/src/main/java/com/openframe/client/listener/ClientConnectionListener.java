@@ -21,7 +21,7 @@ public class ClientConnectionListener {
     private final ObjectMapper objectMapper;
     private final MachineStatusService machineStatusService;
 
-    // TODO: nats is down - heartbeat fallback
+    // Machines that disappear without a disconnect event are marked OFFLINE by MachineOfflineSweeper
     @Bean
     public Consumer<String> machineConnectedConsumer() {
         return message -> {
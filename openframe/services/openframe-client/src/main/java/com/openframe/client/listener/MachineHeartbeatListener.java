@@ -1,46 +1,111 @@
 package com.openframe.client.listener;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openframe.client.service.MachineStatusService;
 import com.openframe.client.service.NatsTopicMachineIdExtractor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.nats.client.Connection;
 import io.nats.client.Dispatcher;
 import io.nats.client.Message;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PreDestroy;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives machine heartbeats on the NATS dispatcher thread and hands them to virtual-thread workers through
+ * a bounded queue, so slow Mongo writes never stall heartbeat delivery.
+ * The queue holds machine ids and the latest receive time is kept per machine: a beat of a machine that is
+ * already queued replaces the older one instead of taking another slot, and beats are rejected once the
+ * queue is full. A heartbeat only carries "still alive", so dropping older beats loses nothing.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class MachineHeartbeatListener {
 
+    private static final String SUBJECT = "machine.*.heartbeat";
+    private static final String METRIC_PREFIX = "client.heartbeat.";
+
     private final Connection natsConnection;
-    private final ObjectMapper objectMapper;
     private final MachineStatusService machineStatusService;
     private final NatsTopicMachineIdExtractor machineIdExtractor;
-
-    private static final String SUBJECT = "machine.*.heartbeat";
+    private final int workerCount;
+    private final long logSampleRate;
+
+    private final BlockingQueue<String> queue;
+    private final Map<String, Instant> pendingBeats = new ConcurrentHashMap<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong processedCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    private final Counter receivedCounter;
+    private final Counter supersededCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final Timer processingTimer;
 
     private Dispatcher dispatcher;
 
+    public MachineHeartbeatListener(Connection natsConnection,
+                                    MachineStatusService machineStatusService,
+                                    NatsTopicMachineIdExtractor machineIdExtractor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${openframe.client.heartbeat.queue-capacity:50000}") int queueCapacity,
+                                    @Value("${openframe.client.heartbeat.workers:32}") int workerCount,
+                                    @Value("${openframe.client.heartbeat.log-sample-rate:1000}") long logSampleRate) {
+        this.natsConnection = natsConnection;
+        this.machineStatusService = machineStatusService;
+        this.machineIdExtractor = machineIdExtractor;
+        this.workerCount = workerCount;
+        this.logSampleRate = Math.max(1, logSampleRate);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder(METRIC_PREFIX + "queue.depth", queue, BlockingQueue::size)
+                .description("Machines with a heartbeat waiting for a worker")
+                .register(meterRegistry);
+        this.receivedCounter = meterRegistry.counter(METRIC_PREFIX + "received");
+        this.supersededCounter = meterRegistry.counter(METRIC_PREFIX + "dropped", "reason", "superseded");
+        this.rejectedCounter = meterRegistry.counter(METRIC_PREFIX + "dropped", "reason", "queue_full");
+        this.failedCounter = meterRegistry.counter(METRIC_PREFIX + "failed");
+        this.lagTimer = Timer.builder(METRIC_PREFIX + "lag")
+                .description("Time from receiving a heartbeat to a worker picking it up")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder(METRIC_PREFIX + "processing")
+                .description("Time spent updating the machine status for a heartbeat")
+                .register(meterRegistry);
+    }
+
     @EventListener(ApplicationReadyEvent.class)
     public void subscribeToMachineHeartbeats() {
         try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.submit(this::runWorker);
+            }
+
             // NATS Dispatcher manages threads internally
             dispatcher = natsConnection.createDispatcher();
 
             // Subscribe with callback - NATS will invoke handleMessage in its own thread
             dispatcher.subscribe(SUBJECT, this::handleMessage);
 
-            log.info("Subscribed to machine heartbeats: subject={}", SUBJECT);
+            log.info("Subscribed to machine heartbeats: subject={} workers={} queueCapacity={}",
+                    SUBJECT, workerCount, queue.remainingCapacity() + queue.size());
 
         } catch (Exception e) {
             log.error("Failed to subscribe to machine heartbeats", e);
@@ -48,23 +113,65 @@ public class MachineHeartbeatListener {
         }
     }
 
+    /**
+     * Runs on the dispatcher thread: only records the beat and never blocks.
+     */
     private void handleMessage(Message message) {
-        String subject = message.getSubject();
-
-        String machineId = machineIdExtractor.extract(subject);;
+        receivedCounter.increment();
+        String machineId;
         try {
-            // Generate timestamp at service side
-            Instant eventTimestamp = Instant.now();
+            machineId = machineIdExtractor.extract(message.getSubject());
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Ignored heartbeat with invalid subject {}", message.getSubject());
+            return;
+        }
 
-            log.info("Processing machine heartbeat: machineId={} timestamp={}", machineId, eventTimestamp);
+        // Generate timestamp at service side
+        Instant eventTimestamp = Instant.now();
+        if (pendingBeats.put(machineId, eventTimestamp) != null) {
+            supersededCounter.increment();
+            return;
+        }
+        if (!queue.offer(machineId)) {
+            pendingBeats.remove(machineId);
+            rejectedCounter.increment();
+            log.debug("Heartbeat queue full, dropped heartbeat for machine {}", machineId);
+        }
+    }
 
-            // Process the heartbeat
-            machineStatusService.processHeartbeat(machineId, eventTimestamp);
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                String machineId = queue.poll(1, TimeUnit.SECONDS);
+                if (machineId != null) {
+                    process(machineId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
 
-            log.info("Machine heartbeat processed successfully");
+    private void process(String machineId) {
+        Instant eventTimestamp = pendingBeats.remove(machineId);
+        if (eventTimestamp == null) {
+            return;
+        }
+        lagTimer.record(Duration.between(eventTimestamp, Instant.now()));
+        try {
+            processingTimer.record(() -> machineStatusService.processHeartbeat(machineId, eventTimestamp));
+            log.debug("Processed machine heartbeat: machineId={} timestamp={}", machineId, eventTimestamp);
         } catch (Exception e) {
+            failedCounter.increment();
             log.error("Unexpected error processing heartbeat for machine {}", machineId, e);
         }
+
+        long processed = processedCount.incrementAndGet();
+        if (processed % logSampleRate == 0) {
+            log.info("Processed {} machine heartbeats (queue depth {}, last machineId={})", processed, queue.size(), machineId);
+        }
     }
 
     @PreDestroy
@@ -77,5 +184,17 @@ public class MachineHeartbeatListener {
                 log.error("Error draining dispatcher", e);
             }
         }
+
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Heartbeat workers did not finish in time, {} machines left in queue", queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
     }
 }
@@ -11,6 +11,7 @@ import io.nats.client.api.ConsumerInfo;
 import io.nats.client.api.DeliverPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -22,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 @Component
+@ConditionalOnProperty(name = "openframe.client.tool-connection.pull.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 // TODO: remove spring cloud stream configs as deprecated
@@ -41,6 +43,7 @@ public class ToolConnectionListener {
         Previous consumer is deprecated.
      */
     private static final String CONSUMER_NAME = "tool-connection-processor-v2";
+    private static final String PULL_CONSUMER_NAME = "tool-connection-processor-pull";
     private static final String DELIVERY_GROUP = "tool-connection";
     private static final String DELIVERY_SUBJECT = "machine.tool-connection.delivery";
     private static final int MAX_DELIVER = 50;
@@ -82,10 +85,13 @@ public class ToolConnectionListener {
 
             log.info("Existing consumer config: {}", existingConsumer.getConsumerConfiguration());
 
+            // Keep the start position the consumer was created with, the server rejects changing it
+            ConsumerConfiguration existingConfig = existingConsumer.getConsumerConfiguration();
             ConsumerConfiguration consumerConfig = ConsumerConfiguration.builder()
                     .durable(CONSUMER_NAME)
                     .ackPolicy(AckPolicy.Explicit)
-                    .deliverPolicy(DeliverPolicy.All)
+                    .deliverPolicy(existingConfig.getDeliverPolicy())
+                    .startSequence(existingConfig.getStartSequence())
                     .ackWait(ACK_WAIT)
                     .maxDeliver(MAX_DELIVER)
                     .filterSubject(SUBJECT)
@@ -101,10 +107,12 @@ public class ToolConnectionListener {
         } catch (JetStreamApiException e) {
             if (e.getErrorCode() == 404) {
                 log.info("Consumer {} {} doesn't exist", STREAM_NAME, CONSUMER_NAME);
+                long startSequence = pullConsumerStartSequence(jsm);
                 ConsumerConfiguration consumerConfig = ConsumerConfiguration.builder()
                         .durable(CONSUMER_NAME)
                         .ackPolicy(AckPolicy.Explicit)
-                        .deliverPolicy(DeliverPolicy.All)
+                        .deliverPolicy(startSequence > 0 ? DeliverPolicy.ByStartSequence : DeliverPolicy.All)
+                        .startSequence(startSequence)
                         .ackWait(ACK_WAIT)
                         .maxDeliver(MAX_DELIVER)
                         .filterSubject(SUBJECT)
@@ -120,6 +128,27 @@ public class ToolConnectionListener {
         }
     }
 
+    /**
+     * When switching back from pull mode the push durable was deleted by {@link ToolConnectionPullListener}.
+     * Re-creating it from the start of the stream would re-apply old tool connections, so it continues after the
+     * ack floor of the pull consumer instead.
+     *
+     * @return the sequence to start from, or 0 to deliver the whole stream when there is no pull consumer
+     */
+    private long pullConsumerStartSequence(JetStreamManagement jsm) throws IOException, JetStreamApiException {
+        try {
+            long startSequence = jsm.getConsumerInfo(STREAM_NAME, PULL_CONSUMER_NAME).getAckFloor().getStreamSequence() + 1;
+            log.info("Creating consumer {} after the ack floor of pull consumer {}: startSequence={}",
+                    CONSUMER_NAME, PULL_CONSUMER_NAME, startSequence);
+            return startSequence;
+        } catch (JetStreamApiException e) {
+            if (e.getErrorCode() == 404) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
     private void handleMessage(Message message) {
         String messagePayload = new String(message.getData(), StandardCharsets.UTF_8);
         String subject = message.getSubject();
@@ -0,0 +1,325 @@
+package com.openframe.client.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.client.service.NatsTopicMachineIdExtractor;
+import com.openframe.client.service.ToolConnectionService;
+import com.openframe.data.model.nats.ToolConnectionMessage;
+import io.nats.client.Connection;
+import io.nats.client.JetStream;
+import io.nats.client.JetStreamApiException;
+import io.nats.client.JetStreamManagement;
+import io.nats.client.JetStreamSubscription;
+import io.nats.client.Message;
+import io.nats.client.PullSubscribeOptions;
+import io.nats.client.api.AckPolicy;
+import io.nats.client.api.ConsumerConfiguration;
+import io.nats.client.api.ConsumerInfo;
+import io.nats.client.api.DeliverPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pull-consumer alternative to {@link ToolConnectionListener}, enabled with
+ * {@code openframe.client.tool-connection.pull.enabled=true}.
+ * <p>
+ * Fetches up to {@code fetch-size} messages at a time and processes them on virtual threads: messages of the same
+ * machine run one after another in stream order, different machines run concurrently. Successful messages are acked
+ * together once the whole batch is done. A failed message is left unacked for redelivery after the ack wait, exactly
+ * like the push listener, and the later messages of that machine in the batch are left unacked as well so they are
+ * not applied ahead of it.
+ * <p>
+ * {@code max-ack-pending} caps the messages in flight across all instances sharing the durable consumer.
+ * <p>
+ * The pull consumer is a separate durable. It must not replay the stream: an old message re-applied to a machine
+ * whose tool went DISCONNECTED reconnects it with a stale agentToolId, and messages for deleted machines are retried
+ * up to {@code maxDeliver} times. When it is first created it therefore starts right after the ack floor of the push
+ * consumer {@code tool-connection-processor-v2}, or with new messages only if there is no push consumer. Messages the
+ * push consumer handled above its ack floor, or while push instances are still running during a rolling switch,
+ * can be processed twice, which the service tolerates like any redelivery. Once the pull consumer exists, its own
+ * position is kept across restarts.
+ * <p>
+ * The push durable would otherwise keep collecting unacked messages for as long as pull mode is on, so it is deleted
+ * as soon as no push instance is bound to it anymore; this is rechecked periodically until it is gone. Switching back
+ * to push mode recreates the push durable after the ack floor of this pull consumer (see {@link ToolConnectionListener}),
+ * so the rollback does not replay the stream either. The pull durable is left in place and can be deleted once push
+ * mode is settled.
+ */
+@Component
+@ConditionalOnProperty(name = "openframe.client.tool-connection.pull.enabled", havingValue = "true")
+@Slf4j
+public class ToolConnectionPullListener {
+
+    private static final String STREAM_NAME = "TOOL_CONNECTIONS";
+    private static final String SUBJECT = "machine.*.tool-connection";
+    private static final String CONSUMER_NAME = "tool-connection-processor-pull";
+    private static final String PUSH_CONSUMER_NAME = "tool-connection-processor-v2";
+    private static final int MAX_DELIVER = 50;
+    private static final Duration ACK_WAIT = Duration.ofSeconds(30);
+    private static final Duration FETCH_ERROR_BACKOFF = Duration.ofSeconds(1);
+    private static final long PUSH_CONSUMER_CHECK_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final Connection natsConnection;
+    private final ObjectMapper objectMapper;
+    private final ToolConnectionService toolConnectionService;
+    private final NatsTopicMachineIdExtractor machineIdExtractor;
+    private final int fetchSize;
+    private final int maxAckPending;
+    private final Duration fetchTimeout;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+    private JetStreamSubscription subscription;
+    private Thread fetchThread;
+    private boolean pushConsumerRetired;
+    private long lastPushConsumerCheck;
+
+    public ToolConnectionPullListener(Connection natsConnection,
+                                      ObjectMapper objectMapper,
+                                      ToolConnectionService toolConnectionService,
+                                      NatsTopicMachineIdExtractor machineIdExtractor,
+                                      @Value("${openframe.client.tool-connection.pull.fetch-size:100}") int fetchSize,
+                                      @Value("${openframe.client.tool-connection.pull.max-ack-pending:1000}") int maxAckPending,
+                                      @Value("${openframe.client.tool-connection.pull.fetch-timeout:1s}") Duration fetchTimeout) {
+        this.natsConnection = natsConnection;
+        this.objectMapper = objectMapper;
+        this.toolConnectionService = toolConnectionService;
+        this.machineIdExtractor = machineIdExtractor;
+        this.fetchSize = fetchSize;
+        this.maxAckPending = Math.max(maxAckPending, fetchSize);
+        this.fetchTimeout = fetchTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToToolConnections() {
+        try {
+            JetStreamManagement jsm = natsConnection.jetStreamManagement();
+            ConsumerConfiguration consumerConfig = buildConsumerConfig(jsm);
+            jsm.addOrUpdateConsumer(STREAM_NAME, consumerConfig);
+
+            JetStream js = natsConnection.jetStream();
+            subscription = js.subscribe(SUBJECT, PullSubscribeOptions.bind(STREAM_NAME, CONSUMER_NAME));
+            retirePushConsumer();
+            fetchThread = Thread.ofVirtual().name("tool-connection-fetch").start(this::runFetchLoop);
+
+            log.info("Subscribed to JetStream with pull consumer: subject={} consumer={} (deliverPolicy={}, startSequence={}, fetchSize={}, maxAckPending={}, maxDeliver={}, ackWait={})",
+                    SUBJECT, CONSUMER_NAME, consumerConfig.getDeliverPolicy(), consumerConfig.getStartSequence(),
+                    fetchSize, maxAckPending, MAX_DELIVER, ACK_WAIT);
+
+        } catch (Exception e) {
+            log.error("Failed to subscribe to JetStream", e);
+            throw new RuntimeException("Failed to subscribe to JetStream", e);
+        }
+    }
+
+    /**
+     * Keeps the start position of an existing pull consumer, since the server rejects changing it. A new one starts
+     * after the push consumer's ack floor, or at new messages when there is no push consumer.
+     */
+    private ConsumerConfiguration buildConsumerConfig(JetStreamManagement jsm) throws IOException, JetStreamApiException {
+        ConsumerConfiguration.Builder builder = ConsumerConfiguration.builder()
+                .durable(CONSUMER_NAME)
+                .ackPolicy(AckPolicy.Explicit)
+                .ackWait(ACK_WAIT)
+                .maxDeliver(MAX_DELIVER)
+                .maxAckPending(maxAckPending)
+                .filterSubject(SUBJECT);
+
+        Optional<ConsumerInfo> existing = findConsumer(jsm, CONSUMER_NAME);
+        if (existing.isPresent()) {
+            ConsumerConfiguration existingConfig = existing.get().getConsumerConfiguration();
+            return builder.deliverPolicy(existingConfig.getDeliverPolicy())
+                    .startSequence(existingConfig.getStartSequence())
+                    .build();
+        }
+
+        Optional<ConsumerInfo> pushConsumer = findConsumer(jsm, PUSH_CONSUMER_NAME);
+        if (pushConsumer.isPresent()) {
+            long startSequence = pushConsumer.get().getAckFloor().getStreamSequence() + 1;
+            log.info("Creating pull consumer {} after the ack floor of push consumer {}: startSequence={}",
+                    CONSUMER_NAME, PUSH_CONSUMER_NAME, startSequence);
+            return builder.deliverPolicy(DeliverPolicy.ByStartSequence)
+                    .startSequence(startSequence)
+                    .build();
+        }
+
+        log.info("Creating pull consumer {} for new messages only, no push consumer {} found", CONSUMER_NAME, PUSH_CONSUMER_NAME);
+        return builder.deliverPolicy(DeliverPolicy.New).build();
+    }
+
+    private Optional<ConsumerInfo> findConsumer(JetStreamManagement jsm, String consumerName) throws IOException, JetStreamApiException {
+        try {
+            return Optional.of(jsm.getConsumerInfo(STREAM_NAME, consumerName));
+        } catch (JetStreamApiException e) {
+            if (e.getErrorCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the push durable once no push instance is bound to it. Only called from the startup and fetch threads.
+     */
+    private void retirePushConsumer() {
+        if (pushConsumerRetired) {
+            return;
+        }
+        lastPushConsumerCheck = System.nanoTime();
+        try {
+            JetStreamManagement jsm = natsConnection.jetStreamManagement();
+            Optional<ConsumerInfo> pushConsumer = findConsumer(jsm, PUSH_CONSUMER_NAME);
+            if (pushConsumer.isEmpty()) {
+                pushConsumerRetired = true;
+            } else if (pushConsumer.get().isPushBound()) {
+                log.info("Push consumer {} is still bound by push instances, keeping it for now", PUSH_CONSUMER_NAME);
+            } else {
+                jsm.deleteConsumer(STREAM_NAME, PUSH_CONSUMER_NAME);
+                pushConsumerRetired = true;
+                log.info("Deleted unbound push consumer {} (numPending={}, numAckPending={})", PUSH_CONSUMER_NAME,
+                        pushConsumer.get().getNumPending(), pushConsumer.get().getNumAckPending());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to retire push consumer {}", PUSH_CONSUMER_NAME, e);
+        }
+    }
+
+    private void runFetchLoop() {
+        while (running) {
+            if (!pushConsumerRetired && System.nanoTime() - lastPushConsumerCheck >= PUSH_CONSUMER_CHECK_INTERVAL_NANOS) {
+                retirePushConsumer();
+            }
+            try {
+                List<Message> batch = subscription.fetch(fetchSize, fetchTimeout);
+                if (!batch.isEmpty()) {
+                    processBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Failed to fetch tool connections", e);
+                try {
+                    Thread.sleep(FETCH_ERROR_BACKOFF);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void processBatch(List<Message> batch) throws InterruptedException {
+        Map<String, List<Message>> byMachine = new LinkedHashMap<>();
+        for (Message message : batch) {
+            byMachine.computeIfAbsent(machineKey(message.getSubject()), key -> new ArrayList<>()).add(message);
+        }
+
+        List<Callable<List<Message>>> tasks = new ArrayList<>(byMachine.size());
+        byMachine.values().forEach(messages -> tasks.add(() -> processInOrder(messages)));
+
+        int acked = 0;
+        for (Future<List<Message>> result : workers.invokeAll(tasks)) {
+            try {
+                for (Message message : result.get()) {
+                    message.ack();
+                    acked++;
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error in tool connection worker", e);
+            }
+        }
+        log.debug("Processed tool connection batch: fetched={} machines={} acked={}", batch.size(), byMachine.size(), acked);
+    }
+
+    /**
+     * Processes the messages of one machine in stream order and returns the ones to ack.
+     * Stops at the first failure so the rest are redelivered after it.
+     */
+    private List<Message> processInOrder(List<Message> messages) {
+        List<Message> processed = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (!process(message)) {
+                break;
+            }
+            processed.add(message);
+        }
+        return processed;
+    }
+
+    private boolean process(Message message) {
+        String messagePayload = new String(message.getData(), StandardCharsets.UTF_8);
+
+        try {
+            String machineId = machineIdExtractor.extract(message.getSubject());
+            ToolConnectionMessage toolConnectionMessage = objectMapper.readValue(messagePayload, ToolConnectionMessage.class);
+
+            String toolType = toolConnectionMessage.getToolType();
+            String agentToolId = toolConnectionMessage.getAgentToolId();
+            long deliveredCount = message.metaData().deliveredCount();
+
+            log.info("Processing tool connection: machineId={} toolType={} agentToolId={} (delivery={})", machineId, toolType, agentToolId, deliveredCount);
+
+            toolConnectionService.addToolConnection(machineId, toolType, agentToolId, deliveredCount == MAX_DELIVER);
+            return true;
+        } catch (Exception e) {
+            log.error("Unexpected error processing tool connection: {}", messagePayload, e);
+            log.info("Leaving message unacked for potential redelivery: tool connection");
+            return false;
+        }
+    }
+
+    private String machineKey(String subject) {
+        try {
+            return machineIdExtractor.extract(subject);
+        } catch (Exception e) {
+            // Invalid subjects fail in process(); keep them apart from real machines
+            return subject;
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        running = false;
+        if (fetchThread != null) {
+            try {
+                // Let the current fetch time out and its batch finish so processed messages are acked
+                if (!fetchThread.join(fetchTimeout.plus(ACK_WAIT))) {
+                    fetchThread.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.shutdownNow();
+
+        if (subscription != null) {
+            try {
+                subscription.unsubscribe();
+                log.info("Unsubscribed from JetStream");
+            } catch (Exception e) {
+                log.error("Error unsubscribing from JetStream", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.openframe.client.scheduler;
+
+import com.openframe.client.service.MachineHeartbeatTable;
+import com.openframe.client.service.MachineLivenessIndex;
+import com.openframe.client.service.MachineTagEventService;
+import com.openframe.data.document.device.DeviceStatus;
+import com.openframe.data.document.device.Machine;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Marks machines OFFLINE when no heartbeat arrived within the silence window, covering agents that vanish
+ * without a NATS disconnect event (crashed host, network partition, NATS outage).
+ * <p>
+ * Silent machines come from the in-memory {@link MachineLivenessIndex}. Every instance receives all heartbeats,
+ * and the index is seeded from Mongo on startup. Each index shard is swept under its own ShedLock lease that is held
+ * for most of the interval, so a shard is swept by one instance at a time and roughly once per interval across the
+ * cluster. Instances are not synchronized, so a shard may occasionally be swept twice in one interval or skipped
+ * until the next; the guarded update keeps a repeated sweep harmless. Instances start at a random shard to spread the work.
+ */
+@Component
+@ConditionalOnProperty(name = "openframe.client.offline-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MachineOfflineSweeper {
+
+    private static final String LOCK_NAME_PREFIX = "machineOfflineSweep-";
+    private static final String FIELD_MACHINE_ID = "machineId";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_LAST_SEEN = "lastSeen";
+
+    private final MongoTemplate mongoTemplate;
+    private final LockingTaskExecutor lockingTaskExecutor;
+    private final MachineLivenessIndex livenessIndex;
+    private final MachineHeartbeatTable heartbeatTable;
+    private final MachineTagEventService machineTagEventService;
+    private final Duration silenceWindow;
+    private final Duration lockAtMostFor;
+    private final Duration lockAtLeastFor;
+    private final int batchSize;
+
+    public MachineOfflineSweeper(MongoTemplate mongoTemplate,
+                                 LockingTaskExecutor lockingTaskExecutor,
+                                 MachineLivenessIndex livenessIndex,
+                                 MachineHeartbeatTable heartbeatTable,
+                                 MachineTagEventService machineTagEventService,
+                                 @Value("${openframe.client.offline-sweeper.interval:30s}") Duration interval,
+                                 @Value("${openframe.client.offline-sweeper.silence-window:3m}") Duration silenceWindow,
+                                 @Value("${openframe.client.offline-sweeper.lock-at-most-for:5m}") Duration lockAtMostFor,
+                                 @Value("${openframe.client.offline-sweeper.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.lockingTaskExecutor = lockingTaskExecutor;
+        this.livenessIndex = livenessIndex;
+        this.heartbeatTable = heartbeatTable;
+        this.machineTagEventService = machineTagEventService;
+        this.silenceWindow = silenceWindow;
+        this.lockAtMostFor = lockAtMostFor;
+        // Keep the lease until shortly before the next run so the other instances skip the shard this interval
+        Duration nearlyInterval = interval.minus(interval.dividedBy(10));
+        this.lockAtLeastFor = nearlyInterval.compareTo(lockAtMostFor) < 0 ? nearlyInterval : lockAtMostFor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Index every ONLINE machine with its stored lastSeen, so machines that went silent while no instance was running
+     * are swept as well.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIndex() {
+        Query query = Query.query(Criteria.where(FIELD_STATUS).is(DeviceStatus.ONLINE));
+        query.fields().include(FIELD_MACHINE_ID).include(FIELD_LAST_SEEN);
+        try (Stream<Machine> machines = mongoTemplate.stream(query, Machine.class)) {
+            machines.forEach(machine -> livenessIndex.touch(machine.getMachineId(),
+                    machine.getLastSeen() != null ? machine.getLastSeen() : Instant.EPOCH));
+        } catch (Exception e) {
+            log.error("Failed to seed machine liveness index", e);
+        }
+        log.info("Seeded machine liveness index with {} ONLINE machines", livenessIndex.size());
+    }
+
+    @Scheduled(fixedDelayString = "${openframe.client.offline-sweeper.interval:30s}",
+            initialDelayString = "${openframe.client.offline-sweeper.interval:30s}")
+    public void sweep() {
+        int shardCount = livenessIndex.shardCount();
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (start + i) % shardCount;
+            Instant now = Instant.now();
+            LockConfiguration lock = new LockConfiguration(now, LOCK_NAME_PREFIX + shard, lockAtMostFor, lockAtLeastFor);
+            try {
+                lockingTaskExecutor.executeWithLock((Runnable) () -> sweepShard(shard, now.minus(silenceWindow)), lock);
+            } catch (Exception e) {
+                log.error("Failed to sweep offline machines of shard {}", shard, e);
+            }
+        }
+    }
+
+    private void sweepShard(int shard, Instant cutoff) {
+        List<String> silent;
+        while (!(silent = livenessIndex.silentSince(shard, cutoff, batchSize)).isEmpty()) {
+            markOffline(silent, cutoff);
+            silent.forEach(livenessIndex::remove);
+            if (silent.size() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Only machines still ONLINE with a stored lastSeen before the cutoff are changed, so a beat written by another
+     * instance after the index was read keeps the machine ONLINE.
+     */
+    private void markOffline(List<String> machineIds, Instant cutoff) {
+        List<Machine> candidates = mongoTemplate.find(Query.query(silent(machineIds, DeviceStatus.ONLINE, cutoff)), Machine.class);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<String> candidateIds = candidates.stream().map(Machine::getMachineId).toList();
+        long modified = mongoTemplate.updateMulti(
+                Query.query(silent(candidateIds, DeviceStatus.ONLINE, cutoff)),
+                Update.update(FIELD_STATUS, DeviceStatus.OFFLINE),
+                Machine.class).getModifiedCount();
+
+        // Some candidates beat in between; publish only the machines that really went OFFLINE
+        List<Machine> changed = modified == candidates.size()
+                ? candidates
+                : mongoTemplate.find(Query.query(silent(candidateIds, DeviceStatus.OFFLINE, cutoff)), Machine.class);
+        changed.forEach(machine -> {
+            machine.setStatus(DeviceStatus.OFFLINE);
+            heartbeatTable.evict(machine.getMachineId());
+        });
+        machineTagEventService.processMachineSaveAll(changed);
+        log.info("Marked {} machines OFFLINE after {} without heartbeat", changed.size(), silenceWindow);
+    }
+
+    private Criteria silent(List<String> machineIds, DeviceStatus status, Instant cutoff) {
+        return Criteria.where(FIELD_MACHINE_ID).in(machineIds)
+                .and(FIELD_STATUS).is(status)
+                .and(FIELD_LAST_SEEN).lt(cutoff);
+    }
+}
@@ -0,0 +1,134 @@
+package com.openframe.client.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.openframe.data.document.device.DeviceStatus;
+import com.openframe.data.document.device.Machine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind table for machine heartbeats.
+ * Beats of machines already known to be ONLINE only record the latest timestamp in memory and are flushed
+ * to Mongo periodically as one unordered bulk of lastSeen updates. Machines not known to be ONLINE
+ * (first beat after startup, after a disconnect, or after a flush found them in another status) are
+ * left to the caller for an immediate write, so status transitions are never delayed.
+ */
+@Component
+@Slf4j
+public class MachineHeartbeatTable {
+
+    private static final String FIELD_MACHINE_ID = "machineId";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_LAST_SEEN = "lastSeen";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    private final Set<String> onlineMachines = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> pendingBeats = new ConcurrentHashMap<>();
+
+    public MachineHeartbeatTable(MongoTemplate mongoTemplate,
+                                 @Value("${openframe.client.heartbeat.write-behind.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true if the beat was buffered, false if the caller has to write it immediately
+     */
+    public boolean coalesce(String machineId, Instant eventTimestamp) {
+        if (!enabled || !onlineMachines.contains(machineId)) {
+            return false;
+        }
+        pendingBeats.merge(machineId, eventTimestamp, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        return true;
+    }
+
+    public void markOnline(String machineId) {
+        if (enabled) {
+            onlineMachines.add(machineId);
+        }
+    }
+
+    /**
+     * Forget the machine so its next beat is written immediately; pending beats are discarded
+     * because they are older than the status change that caused the eviction.
+     */
+    public void evict(String machineId) {
+        onlineMachines.remove(machineId);
+        pendingBeats.remove(machineId);
+    }
+
+    @Scheduled(fixedDelayString = "${openframe.client.heartbeat.write-behind.flush-interval:5s}")
+    public void flush() {
+        if (pendingBeats.isEmpty()) {
+            return;
+        }
+        List<String> machineIds = new ArrayList<>(pendingBeats.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Machine.class);
+        for (String machineId : pendingBeats.keySet()) {
+            Instant lastSeen = pendingBeats.remove(machineId);
+            if (lastSeen == null) {
+                continue;
+            }
+            machineIds.add(machineId);
+            bulk.updateOne(
+                    Query.query(Criteria.where(FIELD_MACHINE_ID).is(machineId).and(FIELD_STATUS).is(DeviceStatus.ONLINE)),
+                    new Update().max(FIELD_LAST_SEEN, lastSeen).set(FIELD_STATUS, DeviceStatus.ONLINE));
+        }
+        if (machineIds.isEmpty()) {
+            return;
+        }
+        try {
+            BulkWriteResult result = bulk.execute();
+            if (result.getMatchedCount() < machineIds.size()) {
+                evictUnmatched(machineIds, result.getMatchedCount());
+            }
+            log.debug("Flushed {} coalesced heartbeats", machineIds.size());
+        } catch (Exception e) {
+            // Beats are idempotent: the next beat of each machine is written immediately
+            machineIds.forEach(onlineMachines::remove);
+            log.error("Failed to flush {} coalesced heartbeats", machineIds.size(), e);
+        }
+    }
+
+    /**
+     * Another instance, a disconnect or the offline sweeper changed the status of some flushed machines.
+     * Only those are evicted so they are re-checked on their next beat; the rest keep coalescing.
+     */
+    private void evictUnmatched(List<String> machineIds, int matched) {
+        Set<String> stillOnline = new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where(FIELD_MACHINE_ID).in(machineIds).and(FIELD_STATUS).is(DeviceStatus.ONLINE)),
+                FIELD_MACHINE_ID, Machine.class, String.class));
+        int evicted = 0;
+        for (String machineId : machineIds) {
+            if (!stillOnline.contains(machineId)) {
+                onlineMachines.remove(machineId);
+                evicted++;
+            }
+        }
+        log.info("Heartbeat flush matched {} of {} machines, re-checking status of {} on next beat",
+                matched, machineIds.size(), evicted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
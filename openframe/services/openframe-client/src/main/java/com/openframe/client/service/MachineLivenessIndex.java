@@ -0,0 +1,88 @@
+package com.openframe.client.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of the last heartbeat per machine, kept sorted by time within a fixed number of shards
+ * so the offline sweeper can read the silent machines of one shard without scanning the others.
+ * The shard of a machine depends only on its id and the shard count, which must be the same on all instances.
+ */
+@Component
+public class MachineLivenessIndex {
+
+    private record Beat(long lastSeen, String machineId) {
+        private static final Comparator<Beat> ORDER = Comparator.comparingLong(Beat::lastSeen).thenComparing(Beat::machineId);
+    }
+
+    private final Map<String, Long> lastSeenByMachine = new ConcurrentHashMap<>();
+    private final List<ConcurrentSkipListSet<Beat>> shards;
+
+    public MachineLivenessIndex(@Value("${openframe.client.offline-sweeper.shards:16}") int shardCount) {
+        List<ConcurrentSkipListSet<Beat>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentSkipListSet<>(Beat.ORDER));
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Record a beat; older timestamps than the one already indexed are ignored.
+     */
+    public void touch(String machineId, Instant lastSeen) {
+        long millis = lastSeen.toEpochMilli();
+        ConcurrentSkipListSet<Beat> shard = shardOf(machineId);
+        lastSeenByMachine.compute(machineId, (id, previous) -> {
+            if (previous != null) {
+                if (previous >= millis) {
+                    return previous;
+                }
+                shard.remove(new Beat(previous, id));
+            }
+            shard.add(new Beat(millis, id));
+            return millis;
+        });
+    }
+
+    public void remove(String machineId) {
+        ConcurrentSkipListSet<Beat> shard = shardOf(machineId);
+        lastSeenByMachine.computeIfPresent(machineId, (id, previous) -> {
+            shard.remove(new Beat(previous, id));
+            return null;
+        });
+    }
+
+    /**
+     * @return up to {@code limit} machines of the shard whose last beat is before {@code cutoff}, oldest first
+     */
+    public List<String> silentSince(int shard, Instant cutoff, int limit) {
+        List<String> machineIds = new ArrayList<>();
+        for (Beat beat : shards.get(shard).headSet(new Beat(cutoff.toEpochMilli(), ""))) {
+            if (machineIds.size() >= limit) {
+                break;
+            }
+            machineIds.add(beat.machineId());
+        }
+        return machineIds;
+    }
+
+    public int size() {
+        return lastSeenByMachine.size();
+    }
+
+    private ConcurrentSkipListSet<Beat> shardOf(String machineId) {
+        return shards.get(Math.floorMod(machineId.hashCode(), shards.size()));
+    }
+}
@@ -6,6 +6,11 @@ import com.openframe.data.document.device.Machine;
 import com.openframe.data.repository.device.MachineRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -15,42 +20,80 @@ import java.time.Instant;
 @Slf4j
 public class MachineStatusService {
 
+    private static final String FIELD_MACHINE_ID = "machineId";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_LAST_SEEN = "lastSeen";
+
     private final MachineRepository machineRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MachineTagEventService machineTagEventService;
+    private final MachineHeartbeatTable heartbeatTable;
+    private final MachineLivenessIndex livenessIndex;
 
     public void updateToOnline(String machineId, Instant eventTimestamp) {
-        update(machineId, DeviceStatus.ONLINE, eventTimestamp);
+        livenessIndex.touch(machineId, eventTimestamp);
+        trackOnline(machineId, update(machineId, DeviceStatus.ONLINE, eventTimestamp));
     }
 
     public void updateToOffline(String machineId, Instant eventTimestamp) {
+        heartbeatTable.evict(machineId);
+        livenessIndex.remove(machineId);
         update(machineId, DeviceStatus.OFFLINE, eventTimestamp);
     }
 
+    /**
+     * Beats of machines already ONLINE are coalesced in the heartbeat table and flushed in bulk;
+     * any other beat is written immediately so the OFFLINE to ONLINE transition is not delayed.
+     */
     public void processHeartbeat(String machineId, Instant eventTimestamp) {
-        update(machineId, DeviceStatus.ONLINE, eventTimestamp);
+        livenessIndex.touch(machineId, eventTimestamp);
+        if (heartbeatTable.coalesce(machineId, eventTimestamp)) {
+            return;
+        }
+        trackOnline(machineId, update(machineId, DeviceStatus.ONLINE, eventTimestamp));
     }
 
-    private void update(String machineId, DeviceStatus newStatus, Instant eventTimestamp) {
-        log.info("Received status update event to {} for machineId={} eventTimestamp={}", newStatus, machineId, eventTimestamp);
+    private void trackOnline(String machineId, DeviceStatus currentStatus) {
+        if (currentStatus == DeviceStatus.ONLINE) {
+            heartbeatTable.markOnline(machineId);
+        }
+    }
 
-        Machine machine = machineRepository.findByMachineId(machineId)
-                .orElseThrow(() -> new MachineNotFoundException(machineId));
+    /**
+     * Atomically sets status and lastSeen only if the event is newer than the stored lastSeen, so concurrent
+     * events cannot overwrite each other and no other machine field is rewritten. The device event is
+     * published only when the status actually changed.
+     *
+     * @return the machine status after the event was applied or ignored as stale
+     */
+    private DeviceStatus update(String machineId, DeviceStatus newStatus, Instant eventTimestamp) {
+        log.debug("Received status update event to {} for machineId={} eventTimestamp={}", newStatus, machineId, eventTimestamp);
 
-        if (isEventNewer(eventTimestamp, machine.getLastSeen())) {
-            applyStatusUpdate(machine, newStatus, eventTimestamp);
-        } else {
+        Query query = Query.query(Criteria.where(FIELD_MACHINE_ID).is(machineId)
+                .orOperator(Criteria.where(FIELD_LAST_SEEN).lt(eventTimestamp), Criteria.where(FIELD_LAST_SEEN).is(null)));
+        query.fields().include(FIELD_STATUS);
+        Update update = new Update()
+                .set(FIELD_STATUS, newStatus)
+                .set(FIELD_LAST_SEEN, eventTimestamp);
+
+        Machine previous = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Machine.class);
+        if (previous == null) {
+            Machine machine = machineRepository.findByMachineId(machineId)
+                    .orElseThrow(() -> new MachineNotFoundException(machineId));
             logStaleEvent(machine, eventTimestamp);
+            return machine.getStatus();
         }
-    }
 
-    private boolean isEventNewer(Instant eventTimestamp, Instant lastSeen) {
-        return lastSeen == null || eventTimestamp.isAfter(lastSeen);
+        if (previous.getStatus() != newStatus) {
+            log.info("Updated machineId={} from status={} to status={} at {}", machineId, previous.getStatus(), newStatus, eventTimestamp);
+            publishStatusChange(machineId);
+        }
+        return newStatus;
     }
 
-    private void applyStatusUpdate(Machine machine, DeviceStatus newStatus, Instant eventTimestamp) {
-        machine.setStatus(newStatus);
-        machine.setLastSeen(eventTimestamp);
-        machineRepository.save(machine);
-        log.info("Updated machineId={} to status={} at {}", machine.getMachineId(), newStatus, eventTimestamp);
+    private void publishStatusChange(String machineId) {
+        machineRepository.findByMachineId(machineId)
+                .ifPresent(machineTagEventService::processMachineSave);
     }
 
     private void logStaleEvent(Machine machine, Instant eventTimestamp) {
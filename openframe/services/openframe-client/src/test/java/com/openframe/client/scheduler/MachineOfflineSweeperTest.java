@@ -0,0 +1,171 @@
+package com.openframe.client.scheduler;
+
+import com.mongodb.client.result.UpdateResult;
+import com.openframe.client.service.MachineHeartbeatTable;
+import com.openframe.client.service.MachineLivenessIndex;
+import com.openframe.client.service.MachineTagEventService;
+import com.openframe.data.document.device.DeviceStatus;
+import com.openframe.data.document.device.Machine;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MachineOfflineSweeperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private SimpleLock simpleLock;
+
+    @Mock
+    private MachineTagEventService machineTagEventService;
+
+    private MachineLivenessIndex livenessIndex;
+
+    private MachineHeartbeatTable heartbeatTable;
+
+    private MachineOfflineSweeper sweeper;
+
+    private static final String MACHINE_1 = "machine-1";
+    private static final String MACHINE_2 = "machine-2";
+    private static final Instant T0 = Instant.parse("2024-03-13T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        livenessIndex = new MachineLivenessIndex(1);
+        heartbeatTable = new MachineHeartbeatTable(mongoTemplate, true);
+        sweeper = new MachineOfflineSweeper(mongoTemplate, new DefaultLockingTaskExecutor(lockProvider), livenessIndex,
+                heartbeatTable, machineTagEventService,
+                Duration.ofSeconds(30), Duration.ofMinutes(3), Duration.ofMinutes(5), 1000);
+        when(lockProvider.lock(any())).thenReturn(Optional.of(simpleLock));
+    }
+
+    @Test
+    void sweep_MarksSilentMachinesOfflineWithGuardedUpdate() {
+        givenSilent(MACHINE_1, MACHINE_2);
+        Machine machine1 = machine(MACHINE_1);
+        Machine machine2 = machine(MACHINE_2);
+        when(mongoTemplate.find(any(Query.class), eq(Machine.class))).thenReturn(List.of(machine1, machine2));
+        givenModified(2);
+
+        sweeper.sweep();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Machine.class));
+        assertSilentQuery(query.getValue(), DeviceStatus.ONLINE);
+        assertEquals(DeviceStatus.OFFLINE, ((Document) update.getValue().getUpdateObject().get("$set")).get("status"));
+
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Machine.class));
+        verify(machineTagEventService).processMachineSaveAll(List.of(machine1, machine2));
+        assertEquals(DeviceStatus.OFFLINE, machine1.getStatus());
+        assertEquals(DeviceStatus.OFFLINE, machine2.getStatus());
+        assertFalse(heartbeatTable.coalesce(MACHINE_1, T0));
+        assertFalse(heartbeatTable.coalesce(MACHINE_2, T0));
+        assertEquals(0, livenessIndex.size());
+    }
+
+    @Test
+    void sweep_PublishesOnlyMachinesThatWentOfflineWhenSomeBeatInBetween() {
+        givenSilent(MACHINE_1, MACHINE_2);
+        Machine machine1 = machine(MACHINE_1);
+        Machine machine2 = machine(MACHINE_2);
+        Machine offline1 = machine(MACHINE_1);
+        when(mongoTemplate.find(any(Query.class), eq(Machine.class)))
+                .thenReturn(List.of(machine1, machine2))
+                .thenReturn(List.of(offline1));
+        givenModified(1);
+
+        sweeper.sweep();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(Machine.class));
+        assertSilentQuery(queries.getAllValues().get(0), DeviceStatus.ONLINE);
+        assertSilentQuery(queries.getAllValues().get(1), DeviceStatus.OFFLINE);
+
+        verify(machineTagEventService).processMachineSaveAll(List.of(offline1));
+        assertEquals(DeviceStatus.OFFLINE, offline1.getStatus());
+        assertFalse(heartbeatTable.coalesce(MACHINE_1, T0));
+        assertTrue(heartbeatTable.coalesce(MACHINE_2, T0));
+    }
+
+    @Test
+    void sweep_NoUpdateWhenNoCandidateIsStillSilentInMongo() {
+        givenSilent(MACHINE_1);
+        when(mongoTemplate.find(any(Query.class), eq(Machine.class))).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Machine.class));
+        verifyNoInteractions(machineTagEventService);
+        assertEquals(0, livenessIndex.size());
+    }
+
+    @Test
+    void sweep_HoldsShardLockForMostOfTheInterval() {
+        sweeper.sweep();
+
+        ArgumentCaptor<LockConfiguration> lock = ArgumentCaptor.forClass(LockConfiguration.class);
+        verify(lockProvider).lock(lock.capture());
+        assertEquals("machineOfflineSweep-0", lock.getValue().getName());
+        assertEquals(Duration.ofSeconds(27), lock.getValue().getLockAtLeastFor());
+        assertEquals(Duration.ofMinutes(5), lock.getValue().getLockAtMostFor());
+        verify(simpleLock).unlock();
+    }
+
+    private void givenSilent(String... machineIds) {
+        for (String machineId : machineIds) {
+            livenessIndex.touch(machineId, T0);
+            heartbeatTable.markOnline(machineId);
+        }
+    }
+
+    private void givenModified(long count) {
+        UpdateResult result = mock(UpdateResult.class);
+        when(result.getModifiedCount()).thenReturn(count);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Machine.class))).thenReturn(result);
+    }
+
+    private void assertSilentQuery(Query query, DeviceStatus status) {
+        Document criteria = query.getQueryObject();
+        assertEquals(status, criteria.get("status"));
+        assertTrue(((Document) criteria.get("lastSeen")).containsKey("$lt"));
+        assertTrue(((Document) criteria.get("machineId")).containsKey("$in"));
+    }
+
+    private Machine machine(String machineId) {
+        Machine machine = new Machine();
+        machine.setMachineId(machineId);
+        machine.setStatus(DeviceStatus.ONLINE);
+        machine.setLastSeen(T0);
+        return machine;
+    }
+}
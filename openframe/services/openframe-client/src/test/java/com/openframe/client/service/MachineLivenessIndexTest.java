@@ -0,0 +1,45 @@
+package com.openframe.client.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MachineLivenessIndexTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-13T12:00:00Z");
+
+    private final MachineLivenessIndex index = new MachineLivenessIndex(1);
+
+    @Test
+    void silentSince_ReturnsMachinesOldestFirst() {
+        index.touch("b", T0.plusSeconds(20));
+        index.touch("a", T0.plusSeconds(10));
+        index.touch("c", T0.plusSeconds(40));
+
+        assertEquals(List.of("a", "b"), index.silentSince(0, T0.plusSeconds(30), 10));
+        assertEquals(List.of("a"), index.silentSince(0, T0.plusSeconds(30), 1));
+    }
+
+    @Test
+    void touch_KeepsLatestBeatOnly() {
+        index.touch("a", T0.plusSeconds(10));
+        index.touch("a", T0.plusSeconds(50));
+        index.touch("a", T0.plusSeconds(20));
+
+        assertEquals(List.of(), index.silentSince(0, T0.plusSeconds(30), 10));
+        assertEquals(List.of("a"), index.silentSince(0, T0.plusSeconds(60), 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_DropsMachineFromShard() {
+        index.touch("a", T0);
+        index.remove("a");
+
+        assertEquals(List.of(), index.silentSince(0, T0.plusSeconds(60), 10));
+        assertEquals(0, index.size());
+    }
+}
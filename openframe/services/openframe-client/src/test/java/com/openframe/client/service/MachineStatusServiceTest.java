@@ -0,0 +1,166 @@
+package com.openframe.client.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.openframe.client.exception.MachineNotFoundException;
+import com.openframe.data.document.device.DeviceStatus;
+import com.openframe.data.document.device.Machine;
+import com.openframe.data.repository.device.MachineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MachineStatusServiceTest {
+
+    @Mock
+    private MachineRepository machineRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MachineTagEventService machineTagEventService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MachineHeartbeatTable heartbeatTable;
+
+    private MachineStatusService machineStatusService;
+
+    private static final String MACHINE_ID = "test-machine-id";
+    private static final Instant T0 = Instant.parse("2024-03-13T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        heartbeatTable = new MachineHeartbeatTable(mongoTemplate, true);
+        machineStatusService = new MachineStatusService(machineRepository, mongoTemplate, machineTagEventService, heartbeatTable, new MachineLivenessIndex(4));
+    }
+
+    @Test
+    void processHeartbeat_PublishesEventOnStatusChange() {
+        Machine machine = machine(DeviceStatus.ONLINE, T0.plusSeconds(10));
+        givenPreviousStatus(DeviceStatus.OFFLINE);
+        when(machineRepository.findByMachineId(MACHINE_ID)).thenReturn(Optional.of(machine));
+
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(10));
+
+        verify(machineTagEventService).processMachineSave(machine);
+        verify(machineRepository, never()).save(any());
+    }
+
+    @Test
+    void updateToOnline_NoEventWhenStatusUnchanged() {
+        givenPreviousStatus(DeviceStatus.ONLINE);
+
+        machineStatusService.updateToOnline(MACHINE_ID, T0.plusSeconds(10));
+
+        verifyNoInteractions(machineTagEventService);
+        verify(machineRepository, never()).findByMachineId(any());
+    }
+
+    @Test
+    void processHeartbeat_WritesFirstBeatAndCoalescesTheRest() {
+        givenPreviousStatus(DeviceStatus.ONLINE);
+
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(10));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(20));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(30));
+
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Machine.class));
+    }
+
+    @Test
+    void flush_WritesLatestBeatPerMachineInOneBulk() {
+        givenPreviousStatus(DeviceStatus.ONLINE);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Machine.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(1, 1, 0, 1, List.of(), List.of()));
+
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(10));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(30));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(20));
+        heartbeatTable.flush();
+
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+        verifyNoMoreInteractions(bulkOperations);
+    }
+
+    @Test
+    void flush_EvictsOnlyMachinesNoLongerOnline() {
+        String otherMachineId = "other-machine-id";
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Machine.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(1, 1, 0, 1, List.of(), List.of()));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("machineId"), eq(Machine.class), eq(String.class)))
+                .thenReturn(List.of(otherMachineId));
+        heartbeatTable.markOnline(MACHINE_ID);
+        heartbeatTable.markOnline(otherMachineId);
+        heartbeatTable.coalesce(MACHINE_ID, T0.plusSeconds(10));
+        heartbeatTable.coalesce(otherMachineId, T0.plusSeconds(10));
+
+        heartbeatTable.flush();
+
+        assertFalse(heartbeatTable.coalesce(MACHINE_ID, T0.plusSeconds(20)));
+        assertTrue(heartbeatTable.coalesce(otherMachineId, T0.plusSeconds(20)));
+    }
+
+    @Test
+    void updateToOffline_NextBeatIsWrittenImmediately() {
+        givenPreviousStatus(DeviceStatus.ONLINE);
+
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(10));
+        machineStatusService.updateToOffline(MACHINE_ID, T0.plusSeconds(15));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(20));
+
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Machine.class));
+    }
+
+    @Test
+    void update_StaleEventIsIgnored() {
+        when(machineRepository.findByMachineId(MACHINE_ID)).thenReturn(Optional.of(machine(DeviceStatus.OFFLINE, T0.plusSeconds(20))));
+
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(10));
+        machineStatusService.processHeartbeat(MACHINE_ID, T0.plusSeconds(11));
+
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Machine.class));
+        verifyNoInteractions(machineTagEventService);
+    }
+
+    @Test
+    void update_ThrowsWhenMachineMissing() {
+        when(machineRepository.findByMachineId(MACHINE_ID)).thenReturn(Optional.empty());
+
+        assertThrows(MachineNotFoundException.class, () -> machineStatusService.processHeartbeat(MACHINE_ID, T0));
+    }
+
+    private void givenPreviousStatus(DeviceStatus status) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Machine.class)))
+                .thenReturn(machine(status, T0));
+    }
+
+    private Machine machine(DeviceStatus status, Instant lastSeen) {
+        Machine machine = new Machine();
+        machine.setMachineId(MACHINE_ID);
+        machine.setStatus(status);
+        machine.setLastSeen(lastSeen);
+        return machine;
+    }
+}
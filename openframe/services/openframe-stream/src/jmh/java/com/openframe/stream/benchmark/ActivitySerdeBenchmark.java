@@ -0,0 +1,92 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.openframe.stream.model.fleet.ActivityMessage;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Internal topic encoding of the activity enrichment topology: JSON versus Smile, configured the same
+ * way as KafkaStreamsConfig's internal serdes. Besides throughput, each run reports the record size
+ * in bytes as the recordBytes secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivitySerdeBenchmark {
+
+    private static final String TOPIC = "activity-enrichment-KSTREAM-JOINTHIS-repartition";
+
+    @Param({"JSON", "SMILE"})
+    public String format;
+
+    private Serializer<ActivityMessage> serializer;
+    private Deserializer<ActivityMessage> deserializer;
+    private ActivityMessage message;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = "SMILE".equals(format)
+                ? DebeziumPayloads.MAPPER.copyWith(new SmileFactory())
+                : DebeziumPayloads.MAPPER;
+        JsonSerializer<ActivityMessage> jsonSerializer = new JsonSerializer<>(mapper);
+        jsonSerializer.setAddTypeInfo(false);
+        JsonDeserializer<ActivityMessage> jsonDeserializer = new JsonDeserializer<>(ActivityMessage.class, mapper);
+        jsonDeserializer.setUseTypeHeaders(false);
+        serializer = jsonSerializer;
+        deserializer = jsonDeserializer;
+        message = DebeziumPayloads.fleetActivityMessage();
+        encoded = serializer.serialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public ActivityMessage deserialize() {
+        return deserializer.deserialize(TOPIC, encoded);
+    }
+
+    @Benchmark
+    public ActivityMessage roundTrip(RecordSize recordSize) {
+        byte[] bytes = serializer.serialize(TOPIC, message);
+        recordSize.recordBytes = bytes.length;
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RecordSize {
+
+        public long recordBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            recordBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.stream.model.fleet.ActivityMessage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realistic Debezium envelopes for the integrated tools, shaped like the ones produced
+ * by the e2e DebeziumMessageFactory but with production-sized documents.
+ */
+public final class DebeziumPayloads {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private DebeziumPayloads() {
+    }
+
+    /**
+     * MeshCentral event document as stored in MongoDB, serialized the way the MongoDB connector
+     * ships it: an embedded JSON string in the after field.
+     */
+    public static String meshCentralDocument() {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("_id", Map.of("$oid", "65f1c2a9e4b0a1b2c3d4e5f6"));
+        document.put("type", "event");
+        document.put("action", "changenode");
+        document.put("etype", "node");
+        document.put("ids", List.of("user//admin", "node//5k1mX0aZ@2pPq7cL9Yb$hW3rT8vN6uE4oI1sD0fG", "mesh//Qw7Er9Ty1Ui3Op5As"));
+        document.put("nodes", List.of(Map.of(
+                "name", "WS-FINANCE-042",
+                "osdesc", "Microsoft Windows 11 Pro - 23H2/22631",
+                "agent", Map.of("id", 4, "caps", 15, "ver", 1, "core", "Jan 15 2024, 2453416224"),
+                "ip", "10.20.30.42",
+                "conn", 1,
+                "pwr", 1)));
+        document.put("userid", "user//admin");
+        document.put("username", "admin");
+        document.put("node", "node//5k1mX0aZ@2pPq7cL9Yb$hW3rT8vN6uE4oI1sD0fG");
+        document.put("nodeid", "node//5k1mX0aZ@2pPq7cL9Yb$hW3rT8vN6uE4oI1sD0fG");
+        document.put("msg", "Changed device WS-FINANCE-042 from group Finance: description, tags, intel AMT");
+        document.put("msgid", 20);
+        document.put("domain", "");
+        document.put("time", "2024-03-13T12:34:56.789Z");
+        return write(document);
+    }
+
+    public static CommonDebeziumMessage meshCentralEvent() {
+        ObjectNode payload = envelopePayload("mongodb", "meshcentral", "events");
+        payload.put("after", meshCentralDocument());
+        return toMessage(payload);
+    }
+
+    public static CommonDebeziumMessage tacticalAuditEvent() {
+        ObjectNode payload = envelopePayload("postgresql", "tacticalrmm", "logs_auditlog");
+        ObjectNode after = payload.putObject("after");
+        after.put("id", 918273);
+        after.put("username", "tactical-admin");
+        after.put("agentid", "gHtRkLmNoPqRsTuVwXyZaBcDeFgHiJkLmNoPqRsT");
+        after.put("entry_time", "2024-03-13T12:34:56.789123Z");
+        after.put("action", "agent_install");
+        after.put("object_type", "agent");
+        after.putNull("before_value");
+        after.put("after_value", write(Map.of(
+                "hostname", "WS-FINANCE-042",
+                "site", Map.of("id", 3, "name", "HQ", "client", "Finance"),
+                "monitoring_type", "workstation",
+                "version", "2.7.0")));
+        after.put("message", "tactical-admin installed agent WS-FINANCE-042");
+        after.put("debug_info", "{}");
+        after.put("ip_address", "10.20.30.1");
+        return toMessage(payload);
+    }
+
+    public static CommonDebeziumMessage tacticalAgentHistoryEvent() {
+        ObjectNode payload = envelopePayload("postgresql", "tacticalrmm", "agents_agenthistory");
+        ObjectNode after = payload.putObject("after");
+        after.put("id", 551203);
+        after.put("time", "2024-03-13T12:35:02.456Z");
+        after.put("type", "script_run");
+        after.put("command", "");
+        after.put("username", "tactical-admin");
+        after.putNull("results");
+        after.put("agent_id", 42);
+        after.put("script_id", 17);
+        after.put("script_results", write(Map.of(
+                "id", 17,
+                "stderr", "",
+                "stdout", "Disk C: 120.4 GB free of 476.3 GB\nDisk D: 812.0 GB free of 931.5 GB\n",
+                "retcode", 0,
+                "execution_time", 1.842)));
+        return toMessage(payload);
+    }
+
+    public static CommonDebeziumMessage fleetActivityEvent() {
+        ObjectNode payload = envelopePayload("mysql", "fleet", "activities");
+        ObjectNode after = payload.putObject("after");
+        after.put("id", 78213);
+        after.put("created_at", "2024-03-13T12:36:10Z");
+        after.put("user_id", 1);
+        after.put("user_name", "fleet-admin");
+        after.put("activity_type", "ran_script");
+        after.put("details", write(Map.of(
+                "host_id", 42,
+                "host_display_name", "WS-FINANCE-042",
+                "script_name", "collect-logs.sh",
+                "script_execution_id", "e5f1a3b2-9c8d-4e7f-a6b5-c4d3e2f1a0b9",
+                "async", true)));
+        after.put("streamed", 0);
+        after.put("user_email", "fleet-admin@example.com");
+        after.put("agentId", "42");
+        return toMessage(payload);
+    }
+
+    /**
+     * The Fleet activity envelope typed the way the activity enrichment topology reads it.
+     */
+    public static ActivityMessage fleetActivityMessage() {
+        return MAPPER.convertValue(fleetActivityEvent(), ActivityMessage.class);
+    }
+
+    public static CommonDebeziumMessage fleetQueryResultEvent() {
+        ObjectNode payload = envelopePayload("mysql", "fleet", "query_results");
+        ObjectNode after = payload.putObject("after");
+        after.put("id", 9912834);
+        after.put("query_id", 12);
+        after.put("host_id", 42);
+        after.putNull("osquery_version");
+        after.putNull("error");
+        after.put("last_fetched", "2024-03-13T12:37:00Z");
+        after.put("data", write(List.of(
+                Map.of("name", "sshd", "pid", "812", "path", "/usr/sbin/sshd", "resident_size", "7340032"),
+                Map.of("name", "osqueryd", "pid", "1204", "path", "/opt/orbit/bin/osqueryd", "resident_size", "52428800"),
+                Map.of("name", "orbit", "pid", "1180", "path", "/opt/orbit/bin/orbit", "resident_size", "31457280"))));
+        return toMessage(payload);
+    }
+
+    static ObjectNode envelopePayload(String connector, String db, String table) {
+        ObjectNode payload = MAPPER.createObjectNode();
+        payload.putNull("before");
+        ObjectNode source = payload.putObject("source");
+        source.put("version", "2.7.0.Final");
+        source.put("connector", connector);
+        source.put("name", db);
+        source.put("ts_ms", 1710333296789L);
+        source.put("snapshot", "false");
+        source.put("db", db);
+        if ("mongodb".equals(connector)) {
+            source.put("collection", table);
+        } else {
+            source.put("table", table);
+        }
+        payload.put("op", "c");
+        payload.put("ts_ms", 1710333296801L);
+        payload.putNull("transaction");
+        return payload;
+    }
+
+    static CommonDebeziumMessage toMessage(ObjectNode payload) {
+        ObjectNode envelope = MAPPER.createObjectNode();
+        envelope.putNull("schema");
+        envelope.set("payload", payload);
+        try {
+            return MAPPER.treeToValue(envelope, CommonDebeziumMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to build Debezium message", e);
+        }
+    }
+
+    static String write(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize benchmark payload", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.stream.deserializer.KafkaMessageDeserializer;
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialize stage: one Debezium envelope per tool through its KafkaMessageDeserializer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializerBenchmark {
+
+    @Param({
+            "MESHCENTRAL_EVENT",
+            "TACTICAL_RMM_AUDIT_EVENT",
+            "TACTICAL_RMM_AGENT_HISTORY_EVENT",
+            "FLEET_MDM_EVENT",
+            "FLEET_MDM_QUERY_RESULT_EVENT"
+    })
+    public MessageType messageType;
+
+    private KafkaMessageDeserializer deserializer;
+    private CommonDebeziumMessage message;
+
+    @Setup
+    public void setUp() {
+        deserializer = StreamFixtures.deserializer(messageType, new ObjectMapper());
+        message = StreamFixtures.payload(messageType);
+    }
+
+    @Benchmark
+    public DeserializedDebeziumMessage deserialize() {
+        return deserializer.deserialize(message, messageType);
+    }
+}
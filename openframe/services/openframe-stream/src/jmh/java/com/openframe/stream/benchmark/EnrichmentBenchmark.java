@@ -0,0 +1,81 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.data.model.redis.CachedMachineInfo;
+import com.openframe.data.model.redis.CachedOrganizationInfo;
+import com.openframe.data.repository.redis.MachineIdCacheService;
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
+import com.openframe.stream.service.IntegratedToolDataEnrichmentService;
+import com.openframe.stream.service.MachineInfoNearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Enrich stage: IntegratedToolDataEnrichmentService with the Redis cache replaced by an
+ * in-memory stub. After the first invocation every lookup is a near-cache hit. The batch
+ * variant enriches a poll-sized list of messages with one near-cache pass.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrichmentBenchmark {
+
+    private IntegratedToolDataEnrichmentService enrichmentService;
+    private DeserializedDebeziumMessage message;
+    private List<DeserializedDebeziumMessage> batch;
+
+    @Setup
+    public void setUp() {
+        CachedMachineInfo machine = mock(CachedMachineInfo.class);
+        when(machine.getMachineId()).thenReturn("machine-5k1mX0aZ");
+        when(machine.getHostname()).thenReturn("WS-FINANCE-042");
+        when(machine.getOrganizationId()).thenReturn("org-finance");
+        CachedOrganizationInfo organization = mock(CachedOrganizationInfo.class);
+        when(organization.getOrganizationId()).thenReturn("org-finance");
+        when(organization.getName()).thenReturn("Finance");
+
+        MachineIdCacheService machineIdCacheService = mock(MachineIdCacheService.class);
+        when(machineIdCacheService.getMachine(anyString())).thenReturn(machine);
+        when(machineIdCacheService.getOrganization(anyString())).thenReturn(organization);
+
+        MachineInfoNearCache nearCache = new MachineInfoNearCache(machineIdCacheService, new SimpleMeterRegistry(),
+                10_000, Duration.ofMinutes(5), Duration.ofSeconds(30), 16);
+        enrichmentService = new IntegratedToolDataEnrichmentService(nearCache);
+        message = StreamFixtures.deserializer(MessageType.MESHCENTRAL_EVENT, new ObjectMapper())
+                .deserialize(DebeziumPayloads.meshCentralEvent(), MessageType.MESHCENTRAL_EVENT);
+        batch = Collections.nCopies(500, message);
+    }
+
+    @Benchmark
+    public IntegratedToolEnrichedData getExtraParams() {
+        return enrichmentService.getExtraParams(message);
+    }
+
+    @Benchmark
+    public List<IntegratedToolEnrichedData> getExtraParamsBatch() {
+        return enrichmentService.getExtraParamsBatch(batch);
+    }
+}
@@ -0,0 +1,112 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish cost of one poll worth of IntegratedToolEvents with the at-least-once producer versus the
+ * exactly-once mode, where every poll is one transaction. Needs a running broker:
+ * -p bootstrapServers=host:port (defaults to localhost:9092). One operation is one poll.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExactlyOnceProducerBenchmark {
+
+    private static final String TOPIC = "benchmark.integrated-tool-events";
+
+    @Param({"AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public String mode;
+
+    @Param({"100", "500"})
+    public int pollSize;
+
+    @Param("localhost:9092")
+    public String bootstrapServers;
+
+    private KafkaProducer<String, byte[]> producer;
+    private boolean transactional;
+    private byte[] event;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        transactional = "EXACTLY_ONCE".equals(mode);
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        if (transactional) {
+            props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "benchmark-tx-" + UUID.randomUUID());
+        }
+        producer = new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer());
+        if (transactional) {
+            producer.initTransactions();
+        }
+        event = DebeziumPayloads.MAPPER.writeValueAsBytes(integratedToolEvent());
+    }
+
+    @TearDown
+    public void tearDown() {
+        producer.close();
+    }
+
+    /**
+     * At-least-once flushes before the offsets would be committed; exactly-once commits the transaction instead.
+     */
+    @Benchmark
+    public void publishPoll() {
+        if (transactional) {
+            producer.beginTransaction();
+        }
+        for (int i = 0; i < pollSize; i++) {
+            producer.send(new ProducerRecord<>(TOPIC, "machine-" + (i % 64) + "-MESHCENTRAL", event));
+        }
+        if (transactional) {
+            producer.commitTransaction();
+        } else {
+            producer.flush();
+        }
+    }
+
+    private static Map<String, Object> integratedToolEvent() {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("toolEventId", "65f1c2a9e4b0a1b2c3d4e5f6");
+        event.put("deviceId", "machine-5k1mX0aZ");
+        event.put("hostname", "WS-FINANCE-042");
+        event.put("organizationId", "org-finance");
+        event.put("organizationName", "Finance");
+        event.put("ingestDay", "2024-03-13");
+        event.put("toolType", "MESHCENTRAL");
+        event.put("eventType", "DEVICE_UPDATED");
+        event.put("severity", "INFO");
+        event.put("summary", "Device updated");
+        event.put("eventTimestamp", 1710338217000L);
+        return event;
+    }
+}
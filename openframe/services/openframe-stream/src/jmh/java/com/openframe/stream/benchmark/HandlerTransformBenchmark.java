@@ -0,0 +1,92 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.data.model.cassandra.UnifiedLogEvent;
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.model.IntegratedToolEvent;
+import com.openframe.stream.handler.DebeziumCassandraMessageHandler;
+import com.openframe.stream.handler.DebeziumKafkaMessageHandler;
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transform stage: building the Cassandra UnifiedLogEvent and the Kafka IntegratedToolEvent
+ * from a deserialized, enriched message. The writes themselves are not included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerTransformBenchmark {
+
+    @Param({"MESHCENTRAL_EVENT", "TACTICAL_RMM_AGENT_HISTORY_EVENT", "FLEET_MDM_QUERY_RESULT_EVENT"})
+    public MessageType messageType;
+
+    private CassandraTransform cassandraTransform;
+    private KafkaTransform kafkaTransform;
+    private DeserializedDebeziumMessage message;
+    private IntegratedToolEnrichedData enrichedData;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        cassandraTransform = new CassandraTransform(mapper);
+        kafkaTransform = new KafkaTransform(mapper);
+        message = StreamFixtures.deserializer(messageType, mapper)
+                .deserialize(StreamFixtures.payload(messageType), messageType);
+
+        enrichedData = new IntegratedToolEnrichedData();
+        enrichedData.setMachineId("machine-5k1mX0aZ");
+        enrichedData.setHostname("WS-FINANCE-042");
+        enrichedData.setOrganizationId("org-finance");
+        enrichedData.setOrganizationName("Finance");
+    }
+
+    @Benchmark
+    public UnifiedLogEvent cassandraTransform() {
+        return cassandraTransform.apply(message, enrichedData);
+    }
+
+    @Benchmark
+    public IntegratedToolEvent kafkaTransform() {
+        return kafkaTransform.apply(message, enrichedData);
+    }
+
+    private static final class CassandraTransform extends DebeziumCassandraMessageHandler {
+
+        private CassandraTransform(ObjectMapper mapper) {
+            super(null, null, mapper);
+        }
+
+        private UnifiedLogEvent apply(DeserializedDebeziumMessage message, IntegratedToolEnrichedData enrichedData) {
+            return transform(message, enrichedData);
+        }
+    }
+
+    private static final class KafkaTransform extends DebeziumKafkaMessageHandler {
+
+        private KafkaTransform(ObjectMapper mapper) {
+            super(null, mapper, Optional.empty());
+        }
+
+        private IntegratedToolEvent apply(DeserializedDebeziumMessage message, IntegratedToolEnrichedData enrichedData) {
+            return transform(message, enrichedData);
+        }
+    }
+}
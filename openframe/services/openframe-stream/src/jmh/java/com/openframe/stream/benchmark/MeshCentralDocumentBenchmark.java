@@ -0,0 +1,72 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.stream.deserializer.MeshCentralEventDeserializer;
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+import com.openframe.stream.util.StreamingFieldExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the embedded MeshCentral document with one tree parse per field
+ * (the previous deserializer path) against the single-pass streaming extraction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeshCentralDocumentBenchmark {
+
+    private static final Set<String> FIELDS = Set.of("nodeid", "etype", "action", "_id", "msg", "time");
+
+    private ObjectMapper mapper;
+    private String document;
+    private CommonDebeziumMessage message;
+    private MeshCentralEventDeserializer deserializer;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper();
+        document = DebeziumPayloads.meshCentralDocument();
+        message = DebeziumPayloads.meshCentralEvent();
+        deserializer = new MeshCentralEventDeserializer(mapper);
+    }
+
+    @Benchmark
+    public void treeParsePerField(Blackhole blackhole) throws IOException {
+        blackhole.consume(mapper.readTree(document).get("nodeid"));
+        JsonNode event = mapper.readTree(document);
+        blackhole.consume(event.get("etype"));
+        blackhole.consume(event.get("action"));
+        blackhole.consume(mapper.readTree(document).get("_id"));
+        blackhole.consume(mapper.readTree(document).get("msg"));
+    }
+
+    @Benchmark
+    public void streamingSinglePass(Blackhole blackhole) {
+        blackhole.consume(StreamingFieldExtractor.extractFields(mapper, document, FIELDS));
+    }
+
+    @Benchmark
+    public DeserializedDebeziumMessage deserialize() {
+        return deserializer.deserialize(message, MessageType.MESHCENTRAL_EVENT);
+    }
+}
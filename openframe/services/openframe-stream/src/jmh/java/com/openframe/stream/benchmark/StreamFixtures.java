@@ -0,0 +1,88 @@
+package com.openframe.stream.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.sdk.fleetmdm.model.Query;
+import com.openframe.stream.deserializer.FleetEventDeserializer;
+import com.openframe.stream.deserializer.FleetQueryResultEventDeserializer;
+import com.openframe.stream.deserializer.KafkaMessageDeserializer;
+import com.openframe.stream.deserializer.MeshCentralEventDeserializer;
+import com.openframe.stream.deserializer.TrmmAgentHistoryEventDeserializer;
+import com.openframe.stream.deserializer.TrmmAuditEventDeserializer;
+import com.openframe.stream.service.FleetMdmCacheService;
+import com.openframe.stream.service.TacticalRmmCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the stream components outside Spring with in-memory stand-ins for the tool APIs,
+ * so benchmarks measure only in-process work.
+ */
+final class StreamFixtures {
+
+    private StreamFixtures() {
+    }
+
+    static KafkaMessageDeserializer deserializer(MessageType type, ObjectMapper mapper) {
+        return switch (type) {
+            case MESHCENTRAL_EVENT -> new MeshCentralEventDeserializer(mapper);
+            case TACTICAL_RMM_AUDIT_EVENT -> new TrmmAuditEventDeserializer(mapper);
+            case TACTICAL_RMM_AGENT_HISTORY_EVENT -> new TrmmAgentHistoryEventDeserializer(mapper, new InMemoryTacticalRmmCacheService()) {
+            };
+            case FLEET_MDM_EVENT -> new FleetEventDeserializer(mapper);
+            case FLEET_MDM_QUERY_RESULT_EVENT -> new FleetQueryResultEventDeserializer(mapper, new InMemoryFleetMdmCacheService()) {
+            };
+            default -> throw new IllegalArgumentException("No benchmark deserializer for " + type);
+        };
+    }
+
+    static CommonDebeziumMessage payload(MessageType type) {
+        return switch (type) {
+            case MESHCENTRAL_EVENT -> DebeziumPayloads.meshCentralEvent();
+            case TACTICAL_RMM_AUDIT_EVENT -> DebeziumPayloads.tacticalAuditEvent();
+            case TACTICAL_RMM_AGENT_HISTORY_EVENT -> DebeziumPayloads.tacticalAgentHistoryEvent();
+            case FLEET_MDM_EVENT -> DebeziumPayloads.fleetActivityEvent();
+            case FLEET_MDM_QUERY_RESULT_EVENT -> DebeziumPayloads.fleetQueryResultEvent();
+            default -> throw new IllegalArgumentException("No benchmark payload for " + type);
+        };
+    }
+
+    private static final class InMemoryTacticalRmmCacheService extends TacticalRmmCacheService {
+
+        private InMemoryTacticalRmmCacheService() {
+            super(null, null);
+        }
+
+        @Override
+        public String getAgentIdByPrimaryKey(Integer primaryKey) {
+            return "gHtRkLmNoPqRsTuVwXyZaBcDeFgHiJkLmNoPqRsT";
+        }
+
+        @Override
+        public String getScriptNameById(Integer scriptId) {
+            return "Disk Space Report";
+        }
+    }
+
+    private static final class InMemoryFleetMdmCacheService extends FleetMdmCacheService {
+
+        private final Query query;
+
+        private InMemoryFleetMdmCacheService() {
+            super(null, new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofMinutes(1));
+            query = mock(Query.class);
+            when(query.getName()).thenReturn("running_processes");
+            when(query.getQuery()).thenReturn("SELECT name, pid, path, resident_size FROM processes;");
+        }
+
+        @Override
+        public Query getQueryById(Long queryId) {
+            return query;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.openframe.stream.benchmark;
+
+import com.openframe.stream.util.TimestampParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares TimestampParser's hand-rolled fast path with Instant.parse on the timestamp shapes
+ * the MeshCentral, Tactical RMM and Fleet connectors emit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestampParserBenchmark {
+
+    @Param({
+            "2024-03-13T12:34:56.789Z",
+            "2024-03-13T12:34:56.789123Z",
+            "2024-03-13T12:36:10Z",
+            "2024-03-13T14:36:10.5+02:00"
+    })
+    public String timestamp;
+
+    @Benchmark
+    public Optional<Long> timestampParser() {
+        return TimestampParser.parseIso8601(timestamp);
+    }
+
+    @Benchmark
+    public long instantParse() {
+        return Instant.parse(timestamp).toEpochMilli();
+    }
+}
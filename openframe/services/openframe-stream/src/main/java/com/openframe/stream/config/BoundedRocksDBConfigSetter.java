@@ -0,0 +1,65 @@
+package com.openframe.stream.config;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+/**
+ * Opt-in RocksDB memory bound for the Kafka Streams state stores (see KafkaStreamsConfig).
+ * All stores of the instance share one LRU cache of {@code total-off-heap} bytes. Block cache, index and
+ * filter blocks and memtables are all charged to it, with memtables capped at {@code total-memtable}
+ * through a WriteBufferManager, so off-heap memory stays bounded however many partitions are assigned.
+ * Kafka Streams creates this class reflectively; the sizes come from the streams config.
+ */
+public class BoundedRocksDBConfigSetter implements RocksDBConfigSetter {
+
+    public static final String TOTAL_OFF_HEAP_CONFIG = "openframe.rocksdb.total-off-heap";
+    public static final String TOTAL_MEMTABLE_CONFIG = "openframe.rocksdb.total-memtable";
+    public static final String WRITE_BUFFER_SIZE_CONFIG = "openframe.rocksdb.write-buffer-size";
+    public static final String MAX_WRITE_BUFFERS_CONFIG = "openframe.rocksdb.max-write-buffers";
+
+    // Share of the cache reserved for index and filter blocks, so data blocks can't evict them
+    private static final double INDEX_FILTER_BLOCK_RATIO = 0.1;
+
+    private static Cache sharedCache;
+    private static WriteBufferManager sharedWriteBufferManager;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        initShared(longConfig(configs, TOTAL_OFF_HEAP_CONFIG), longConfig(configs, TOTAL_MEMTABLE_CONFIG));
+
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(sharedCache);
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        options.setTableFormatConfig(tableConfig);
+        options.setWriteBufferManager(sharedWriteBufferManager);
+        options.setWriteBufferSize(longConfig(configs, WRITE_BUFFER_SIZE_CONFIG));
+        options.setMaxWriteBufferNumber((int) longConfig(configs, MAX_WRITE_BUFFERS_CONFIG));
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // The cache and write buffer manager are shared between stores and live as long as the process
+    }
+
+    private static synchronized void initShared(long totalOffHeap, long totalMemtable) {
+        if (sharedCache == null) {
+            sharedCache = new LRUCache(totalOffHeap, -1, false, INDEX_FILTER_BLOCK_RATIO);
+            sharedWriteBufferManager = new WriteBufferManager(totalMemtable, sharedCache);
+        }
+    }
+
+    private static long longConfig(Map<String, Object> configs, String name) {
+        Object value = configs.get(name);
+        if (value == null) {
+            throw new IllegalStateException("Missing RocksDB setting " + name);
+        }
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,23 @@
+package com.openframe.stream.config;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.AsyncCassandraTemplate;
+import org.springframework.data.cassandra.core.convert.CassandraConverter;
+
+/**
+ * Cassandra configuration for the stream service.
+ * Exposes an async template for the buffered UnifiedLogEvent write path.
+ */
+@Configuration
+public class CassandraConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncCassandraOperations.class)
+    public AsyncCassandraTemplate asyncCassandraTemplate(CqlSession session, CassandraConverter converter) {
+        return new AsyncCassandraTemplate(session, converter);
+    }
+}
@@ -1,7 +1,12 @@
 package com.openframe.stream.config;
 import com.openframe.data.model.enums.MessageType;
 import com.openframe.kafka.producer.GenericKafkaProducer;
+import com.openframe.stream.service.DeadLetterService;
+import com.openframe.stream.service.TransactionalEventPublisher;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.ssl.SslBundles;
@@ -12,12 +17,20 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+@Slf4j
 @Configuration
 public class KafkaConfig {
 
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+
     @Bean
     public Converter<byte[], MessageType> messageTypeConverter() {
         return new Converter<byte[], MessageType>() {
@@ -33,4 +46,48 @@ public class KafkaConfig {
 
         };
     }
+
+    /**
+     * Listener container factory delivering the whole poll as a list of records.
+     * Batch size and concurrency are set per listener, see JsonKafkaBatchListener.
+     * In exactly-once mode every poll runs in a transaction of the TransactionalEventPublisher.
+     * A failed batch is redelivered from the failed record every {@code retry-interval}. After {@code max-attempts}
+     * deliveries the record is handed to the dead letter topic when retry topics are enabled, or logged and skipped
+     * otherwise, so a poison record cannot stall its partition.
+     */
+    @Bean(name = BATCH_LISTENER_CONTAINER_FACTORY)
+    @ConditionalOnProperty(name = "openframe.oss-tenant.kafka.consumer.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ObjectProvider<ConsumerFactory<Object, Object>> kafkaConsumerFactory,
+            KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            ObjectProvider<TransactionalEventPublisher> transactionalPublisher,
+            ObjectProvider<DeadLetterService> deadLetterService,
+            @Value("${openframe.oss-tenant.kafka.consumer.batch.retry-interval:5s}") Duration retryInterval,
+            @Value("${openframe.oss-tenant.kafka.consumer.batch.max-attempts:10}") int maxAttempts) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory.getIfAvailable(() ->
+                new DefaultKafkaConsumerFactory<>(kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable()))));
+        factory.setBatchListener(true);
+        FixedBackOff backOff = new FixedBackOff(retryInterval.toMillis(), Math.max(0, maxAttempts - 1));
+        ConsumerRecordRecoverer recoverer = exhaustedRecordRecoverer(deadLetterService.getIfAvailable());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        transactionalPublisher.ifAvailable(publisher -> {
+            factory.getContainerProperties().setKafkaAwareTransactionManager(publisher.getTransactionManager());
+            factory.setAfterRollbackProcessor(
+                    new DefaultAfterRollbackProcessor<>(recoverer, backOff, publisher.getKafkaTemplate(), true));
+        });
+        return factory;
+    }
+
+    private static ConsumerRecordRecoverer exhaustedRecordRecoverer(DeadLetterService deadLetterService) {
+        return (record, error) -> {
+            if (deadLetterService != null) {
+                deadLetterService.publish(record, error);
+            } else {
+                log.error("Skipping record {}-{}@{} after exhausting batch retries", record.topic(), record.partition(), record.offset(), error);
+            }
+        };
+    }
 }
@@ -0,0 +1,71 @@
+package com.openframe.stream.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Non-blocking retries for the inbound CDC topics. A record that fails in JsonKafkaListener is moved to
+ * {@code <topic>-retry-60000}, then {@code <topic>-retry-600000} (1 and 10 minutes by default), and finally
+ * to {@code <topic>-dlt}, keeping its original headers plus the failure reason. The partition it came from
+ * moves on immediately. Batch listeners can't use retry topics; in batch mode failed records go straight
+ * to the DLT (see DeadLetterService).
+ */
+@Configuration
+@ConditionalOnProperty(name = KafkaRetryConfig.RETRY_ENABLED, havingValue = "true")
+public class KafkaRetryConfig {
+
+    public static final String RETRY_ENABLED = "openframe.oss-tenant.kafka.retry.enabled";
+    public static final String RETRY_TOPIC_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    @Value("${openframe.oss-tenant.kafka.topics.inbound.meshcentral-events}")
+    private String meshCentralEventsTopic;
+
+    @Value("${openframe.oss-tenant.kafka.topics.inbound.tactical-rmm-events}")
+    private String tacticalRmmEventsTopic;
+
+    @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-events}")
+    private String fleetMdmEventsTopic;
+
+    @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-query-result-events}")
+    private String fleetMdmQueryResultEventsTopic;
+
+    @Bean
+    @ConditionalOnProperty(name = "openframe.oss-tenant.kafka.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
+    public RetryTopicConfiguration integratedToolEventsRetryTopics(KafkaTemplate<?, ?> kafkaTemplate,
+                                                                   @Value("${openframe.oss-tenant.kafka.retry.first-delay:1m}") Duration firstDelay,
+                                                                   @Value("${openframe.oss-tenant.kafka.retry.last-delay:10m}") Duration lastDelay) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopics(inboundTopics())
+                .maxAttempts(3)
+                .exponentialBackoff(firstDelay.toMillis(), (double) lastDelay.toMillis() / firstDelay.toMillis(), lastDelay.toMillis())
+                .retryTopicSuffix(RETRY_TOPIC_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .create(kafkaTemplate);
+    }
+
+    /**
+     * Dead letter topics are declared up front so the batch path can publish to them as well.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics integratedToolEventsDeadLetterTopics() {
+        return new KafkaAdmin.NewTopics(inboundTopics().stream()
+                .map(topic -> TopicBuilder.name(topic + DLT_SUFFIX).build())
+                .toArray(NewTopic[]::new));
+    }
+
+    public List<String> inboundTopics() {
+        return List.of(meshCentralEventsTopic, tacticalRmmEventsTopic, fleetMdmEventsTopic, fleetMdmQueryResultEventsTopic);
+    }
+}
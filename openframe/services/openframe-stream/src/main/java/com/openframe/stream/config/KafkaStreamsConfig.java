@@ -1,8 +1,11 @@
 package com.openframe.stream.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.openframe.stream.model.fleet.ActivityMessage;
 import com.openframe.stream.model.fleet.HostActivityMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
@@ -12,9 +15,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerde;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.unit.DataSize;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +39,39 @@ public class KafkaStreamsConfig {
     @Value("${spring.application.name}")
     private String applicationName;
 
+    @Value("${openframe.oss-tenant.kafka.exactly-once.enabled:false}")
+    private boolean exactlyOnce;
+
+    @Value("${openframe.oss-tenant.kafka.streams.internal-format:json}")
+    private InternalFormat internalFormat;
+
+    @Value("${openframe.oss-tenant.kafka.streams.num-stream-threads:1}")
+    private int numStreamThreads;
+
+    @Value("${openframe.oss-tenant.kafka.streams.num-standby-replicas:0}")
+    private int numStandbyReplicas;
+
+    @Value("${openframe.oss-tenant.kafka.streams.state-dir:/tmp/kafka-streams}")
+    private String stateDir;
+
+    @Value("${openframe.oss-tenant.kafka.streams.metrics-recording-level:INFO}")
+    private String metricsRecordingLevel;
+
+    @Value("${openframe.oss-tenant.kafka.streams.rocksdb.bounded-memory.enabled:false}")
+    private boolean rocksDbBoundedMemory;
+
+    @Value("${openframe.oss-tenant.kafka.streams.rocksdb.total-off-heap:256MB}")
+    private DataSize rocksDbTotalOffHeap;
+
+    @Value("${openframe.oss-tenant.kafka.streams.rocksdb.total-memtable:64MB}")
+    private DataSize rocksDbTotalMemtable;
+
+    @Value("${openframe.oss-tenant.kafka.streams.rocksdb.write-buffer-size:16MB}")
+    private DataSize rocksDbWriteBufferSize;
+
+    @Value("${openframe.oss-tenant.kafka.streams.rocksdb.max-write-buffers:3}")
+    private int rocksDbMaxWriteBuffers;
+
     private final ObjectMapper objectMapper;
 
     public KafkaStreamsConfig(ObjectMapper objectMapper) {
@@ -61,6 +100,22 @@ public class KafkaStreamsConfig {
         );
     }
 
+    /**
+     * Serde for ActivityMessage on internal repartition and changelog topics
+     */
+    @Bean
+    public Serde<ActivityMessage> internalActivityMessageSerde() {
+        return internalSerde(ActivityMessage.class);
+    }
+
+    /**
+     * Serde for HostActivityMessage on internal repartition and changelog topics
+     */
+    @Bean
+    public Serde<HostActivityMessage> internalHostActivityMessageSerde() {
+        return internalSerde(HostActivityMessage.class);
+    }
+
     @Bean
     public Serde<ActivityMessage> outgoingActivityMessageSerde() {
         JsonSerde<ActivityMessage> serde = new JsonSerde<>(ActivityMessage.class);
@@ -68,6 +123,27 @@ public class KafkaStreamsConfig {
         return serde;
     }
 
+    /**
+     * Internal topics are only read back by this application, so they can use Smile, Jackson's binary JSON:
+     * same data model and annotations, smaller records and cheaper encoding. Input and output topics stay JSON.
+     * Changing the format of an existing application requires resetting its internal topics and state.
+     */
+    private <T> Serde<T> internalSerde(Class<T> type) {
+        ObjectMapper mapper = internalFormat == InternalFormat.SMILE
+                ? objectMapper.copyWith(new SmileFactory())
+                : objectMapper;
+        JsonSerializer<T> serializer = new JsonSerializer<>(mapper);
+        serializer.setAddTypeInfo(false);
+        JsonDeserializer<T> deserializer = new JsonDeserializer<>(type, mapper);
+        deserializer.setUseTypeHeaders(false);
+        return Serdes.serdeFrom(serializer, deserializer);
+    }
+
+    public enum InternalFormat {
+        JSON,
+        SMILE
+    }
+
     @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
     public KafkaStreamsConfiguration kStreamsConfig() {
         Map<String, Object> props = new HashMap<>();
@@ -78,11 +154,22 @@ public class KafkaStreamsConfig {
         
         // Serialization configuration - using String for keys, custom Serde for values
         props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass().getName());
-        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.AT_LEAST_ONCE);
-        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, 1);
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, exactlyOnce ? StreamsConfig.EXACTLY_ONCE_V2 : StreamsConfig.AT_LEAST_ONCE);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, numStreamThreads);
+        props.put(StreamsConfig.METRICS_RECORDING_LEVEL_CONFIG, metricsRecordingLevel);
         
-        // State store configuration
-        props.put(StreamsConfig.STATE_DIR_CONFIG, "/tmp/kafka-streams");
+        // State store configuration: standby replicas keep a warm copy of the join window stores on another
+        // instance, a persistent state dir lets a restarted pod resume from its local stores instead of the changelog
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, numStandbyReplicas);
+        // RocksDB keeps its per-store defaults unless the shared memory bound is switched on
+        if (rocksDbBoundedMemory) {
+            props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedRocksDBConfigSetter.class);
+            props.put(BoundedRocksDBConfigSetter.TOTAL_OFF_HEAP_CONFIG, rocksDbTotalOffHeap.toBytes());
+            props.put(BoundedRocksDBConfigSetter.TOTAL_MEMTABLE_CONFIG, rocksDbTotalMemtable.toBytes());
+            props.put(BoundedRocksDBConfigSetter.WRITE_BUFFER_SIZE_CONFIG, rocksDbWriteBufferSize.toBytes());
+            props.put(BoundedRocksDBConfigSetter.MAX_WRITE_BUFFERS_CONFIG, rocksDbMaxWriteBuffers);
+        }
         
         // Consumer configuration
         props.put(StreamsConfig.consumerPrefix(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
@@ -95,4 +182,20 @@ public class KafkaStreamsConfig {
         
         return new KafkaStreamsConfiguration(props);
     }
+
+    /**
+     * Binds the Kafka Streams client metrics (including the embedded consumer's records-lag and, with
+     * metrics-recording-level DEBUG, the state store metrics) and a gauge for the instance state.
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer kafkaStreamsMetricsConfigurer(MeterRegistry meterRegistry) {
+        return factoryBean -> {
+            factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+            Gauge.builder("kafka.streams.running", factoryBean,
+                            fb -> fb.getKafkaStreams() != null && fb.getKafkaStreams().state().isRunningOrRebalancing() ? 1 : 0)
+                    .tag("application.id", applicationName)
+                    .description("1 while the Kafka Streams instance is running or rebalancing")
+                    .register(meterRegistry);
+        };
+    }
 } 
\ No newline at end of file
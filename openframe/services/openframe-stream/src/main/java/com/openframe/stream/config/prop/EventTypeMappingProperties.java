@@ -0,0 +1,28 @@
+package com.openframe.stream.config.prop;
+
+import com.openframe.data.model.enums.IntegratedToolType;
+import com.openframe.data.model.enums.UnifiedEventType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event type mappings added on top of the built-in EventTypeMapper mappings.
+ * Source event types contain dots, so they need the bracket notation:
+ * openframe.oss-tenant.event-type-mappings.overrides.meshcentral.[user.login]: LOGIN
+ *
+ * Changes pushed through the config server are applied on refresh without a redeploy.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "openframe.oss-tenant.event-type-mappings")
+public class EventTypeMappingProperties {
+
+    /**
+     * Source event type to unified event type, per tool type
+     */
+    private Map<IntegratedToolType, Map<String, UnifiedEventType>> overrides = new HashMap<>();
+}
@@ -9,8 +9,8 @@ import org.springframework.stereotype.Component;
 import com.openframe.stream.util.TimestampParser;
 import com.openframe.stream.mapping.FleetActivityTypeMapping;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -23,7 +23,7 @@ public class FleetEventDeserializer extends IntegratedToolEventDeserializer {
     private static final String FIELD_CREATED_AT = "created_at";
 
     public FleetEventDeserializer(ObjectMapper mapper) {
-        super(mapper, List.of(), List.of());
+        super(mapper, Set.of(), Set.of());
     }
 
     @Override
@@ -9,8 +9,8 @@ import com.openframe.stream.service.FleetMdmCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.openframe.stream.mapping.SourceEventTypes.Fleet.EXECUTE_SCHEDULED_QUERY;
 
@@ -21,7 +21,7 @@ public class FleetQueryResultEventDeserializer extends IntegratedToolEventDeseri
     private final FleetMdmCacheService fleetMdmCacheService;
 
     protected FleetQueryResultEventDeserializer(ObjectMapper mapper, FleetMdmCacheService fleetMdmCacheService) {
-        super(mapper, List.of(), List.of());
+        super(mapper, Set.of(), Set.of());
         this.fleetMdmCacheService = fleetMdmCacheService;
     }
 
@@ -79,7 +79,7 @@ public class FleetQueryResultEventDeserializer extends IntegratedToolEventDeseri
     }
 
     @Override
-    protected String getError(JsonNode after) {
+    protected JsonNode getError(JsonNode after) {
         // Check if error field is present in the event
         JsonNode errorNode = after.get("error");
         if (errorNode == null || errorNode.isNull() || errorNode.asText().isEmpty()) {
@@ -105,7 +105,7 @@ public class FleetQueryResultEventDeserializer extends IntegratedToolEventDeseri
                 errorJson.put("query", queryInfo.getQuery());
             }
             
-            return mapper.writeValueAsString(errorJson);
+            return errorJson;
         } catch (Exception e) {
             log.error("Failed to create error JSON", e);
             return null;
@@ -113,7 +113,7 @@ public class FleetQueryResultEventDeserializer extends IntegratedToolEventDeseri
     }
 
     @Override
-    protected String getResult(JsonNode after) {
+    protected JsonNode getResult(JsonNode after) {
         // Get the data field from the event
         JsonNode dataNode = after.get("data");
         if (dataNode == null || dataNode.isNull() || dataNode.asText().isEmpty()) {
@@ -140,7 +140,7 @@ public class FleetQueryResultEventDeserializer extends IntegratedToolEventDeseri
                 resultJson.put("query", queryInfo.getQuery());
             }
             
-            return mapper.writeValueAsString(resultJson);
+            return resultJson;
         } catch (Exception e) {
             log.error("Failed to create result JSON", e);
             return null;
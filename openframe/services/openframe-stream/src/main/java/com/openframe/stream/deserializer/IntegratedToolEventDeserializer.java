@@ -10,13 +10,13 @@ import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
 import com.openframe.data.model.enums.IntegratedToolType;
 import com.openframe.data.model.enums.MessageType;
 import com.openframe.data.model.enums.UnifiedEventType;
+import com.openframe.stream.util.ContentHash;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
@@ -30,15 +30,14 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
     private static final String DEFAULT_TABLE_NAME = "events";
 
     private static final String COMPOSITE_KEY_PATTERN = "%s_%s_id_%s";
-    private static final String HASH_KEY_PATTERN = "%s_%s_hash_%s";
     protected final ObjectMapper mapper;
-    private final List<String> eventsToSkip;
-    private final List<String> eventsInvisible;
+    private final Set<String> eventsToSkip;
+    private final Set<String> eventsInvisible;
 
-    protected IntegratedToolEventDeserializer(ObjectMapper mapper, List<String> eventsToSkip, List<String> eventsInvisible) {
+    protected IntegratedToolEventDeserializer(ObjectMapper mapper, Set<String> eventsToSkip, Set<String> eventsInvisible) {
         this.mapper = mapper;
-        this.eventsToSkip = eventsToSkip;
-        this.eventsInvisible = eventsInvisible;
+        this.eventsToSkip = Set.copyOf(eventsToSkip);
+        this.eventsInvisible = Set.copyOf(eventsInvisible);
     }
 
     @Override
@@ -48,20 +47,24 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
             if (after == null || after.isNull()) {
                 return null;
             }
-            long eventTimestamp = getEffectiveTimestamp(debeziumMessage, after);
-            String sourceEventType = getSourceEventType(after).orElse(UNKNOWN);
+            JsonNode document = parseDocument(after);
+            String sourceEventType = getSourceEventType(document).orElse(UNKNOWN);
+            if (eventsToSkip.contains(sourceEventType)) {
+                return skipped(debeziumMessage, messageType, sourceEventType);
+            }
+            long eventTimestamp = getEffectiveTimestamp(debeziumMessage, document);
 
             // Build complete details JSON with error, result, and dynamic fields
-            String detailsJson = buildDetailsJson(after);
+            String detailsJson = buildDetailsJson(document);
 
             return DeserializedDebeziumMessage.builder()
                     .payload(debeziumMessage.getPayload())
-                    .agentId(getAgentId(after).orElse(null))
+                    .agentId(getAgentId(document).orElse(null))
                     .ingestDay(formatter.format(Instant.ofEpochMilli(eventTimestamp)))
                     .sourceEventType(sourceEventType)
-                    .toolEventId(generateCompositeId(debeziumMessage, messageType, after))
+                    .toolEventId(generateCompositeId(debeziumMessage, messageType, after, document))
                     .unifiedEventType(getEventType(sourceEventType, messageType.getIntegratedToolType()))
-                    .message(getMessage(after).orElse(null))
+                    .message(getMessage(document).orElse(null))
                     .integratedToolType(messageType.getIntegratedToolType())
                     .debeziumMessage(getDebeziumMessage(after))
                     .details(detailsJson)
@@ -74,6 +77,20 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
         }
     }
 
+    /**
+     * Skip-listed event types are rejected right after the document is parsed, so they never pay for
+     * details JSON, timestamps or ID generation.
+     */
+    private DeserializedDebeziumMessage skipped(CommonDebeziumMessage debeziumMessage, MessageType messageType, String sourceEventType) {
+        return DeserializedDebeziumMessage.builder()
+                .payload(debeziumMessage.getPayload())
+                .sourceEventType(sourceEventType)
+                .integratedToolType(messageType.getIntegratedToolType())
+                .skipProcessing(true)
+                .isVisible(isVisible(sourceEventType))
+                .build();
+    }
+
     /**
      * Builds complete details JSON combining error, result, and additional dynamic fields
      */
@@ -82,27 +99,15 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
             ObjectNode detailsNode = mapper.createObjectNode();
 
             // Add error if present
-            String error = getError(after);
-            if (error != null && !error.trim().isEmpty() && !error.equals("{}")) {
-                try {
-                    JsonNode errorNode = mapper.readTree(error);
-                    detailsNode.set("error", errorNode);
-                } catch (Exception e) {
-                    log.warn("Failed to parse error JSON, storing as-is: {}", error);
-                    detailsNode.put("error", error);
-                }
+            JsonNode error = getError(after);
+            if (hasContent(error)) {
+                detailsNode.set("error", error);
             }
 
             // Add result if present
-            String result = getResult(after);
-            if (result != null && !result.trim().isEmpty() && !result.equals("{}")) {
-                try {
-                    JsonNode resultNode = mapper.readTree(result);
-                    detailsNode.set("result", resultNode);
-                } catch (Exception e) {
-                    log.warn("Failed to parse result JSON, storing as-is: {}", result);
-                    detailsNode.put("result", result);
-                }
+            JsonNode result = getResult(after);
+            if (hasContent(result)) {
+                detailsNode.set("result", result);
             }
 
             // Add dynamic fields from getDetails()
@@ -127,6 +132,25 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
         }
     }
 
+    private boolean hasContent(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return false;
+        }
+        if (node.isContainerNode()) {
+            return !node.isEmpty();
+        }
+        return !node.asText().isBlank();
+    }
+
+    /**
+     * Resolve the document the field getters read from. Called once per message, so tools that
+     * ship the row as an embedded JSON string (MongoDB connector) parse it a single time here.
+     * Defaults to the Debezium after field itself.
+     */
+    protected JsonNode parseDocument(JsonNode after) {
+        return after;
+    }
+
     protected abstract Optional<String> getAgentId(JsonNode afterField);
 
     protected abstract Optional<String> getSourceEventType(JsonNode afterField);
@@ -161,28 +185,21 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
     }
 
     /**
-     * Generates composite ID: tool_table_id_value or tool_table_hash_value for missing PKs
-     * Returns deterministic UUID for idempotency
+     * Generates composite ID: tool_table_id_value, returned as a deterministic name-based UUID for idempotency.
+     * Events without a primary key fall back to a 128-bit content hash of tool, table and the after field,
+     * streamed over the JSON tree instead of its serialized form.
      */
-    private String generateCompositeId(CommonDebeziumMessage message, MessageType messageType, JsonNode after) {
+    private String generateCompositeId(CommonDebeziumMessage message, MessageType messageType, JsonNode after, JsonNode document) {
         String toolName = messageType.getIntegratedToolType().name().toLowerCase();
         String tableName = extractTableName(message);
 
-        String compositeKey = getEventToolId(after)
-                .map(id -> String.format(COMPOSITE_KEY_PATTERN, toolName, tableName, id))
+        return getEventToolId(document)
+                .map(id -> UUID.nameUUIDFromBytes(String.format(COMPOSITE_KEY_PATTERN, toolName, tableName, id).getBytes()))
                 .orElseGet(() -> {
                     log.warn("Event missing primary key from {}.{} - using content hash fallback", toolName, tableName);
-
-                    String contentHash = Integer.toHexString(
-                            Objects.hash(toolName, tableName, after.toString())
-                    );
-
-                    return String.format(HASH_KEY_PATTERN, toolName, tableName, contentHash);
-                });
-
-        //Generate deterministic UUID
-        UUID uuid = UUID.nameUUIDFromBytes(compositeKey.getBytes());
-        return uuid.toString();
+                    return ContentHash.uuidOf(after, toolName, tableName);
+                })
+                .toString();
     }
 
     /**
@@ -222,9 +239,9 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
      * Extract standard error details from the event
      * Override in specific deserializers to populate error information
      *
-     * @return JSON string for error field, or null if no error information
+     * @return JSON node for error field, or null if no error information
      */
-    protected String getError(JsonNode after) {
+    protected JsonNode getError(JsonNode after) {
         return null;
     }
 
@@ -232,9 +249,9 @@ public abstract class IntegratedToolEventDeserializer implements KafkaMessageDes
      * Extract standard result details from the event
      * Override in specific deserializers to populate result information
      *
-     * @return JSON string for result field, or null if no result information
+     * @return JSON node for result field, or null if no result information
      */
-    protected String getResult(JsonNode after) {
+    protected JsonNode getResult(JsonNode after) {
         return null;
     }
 
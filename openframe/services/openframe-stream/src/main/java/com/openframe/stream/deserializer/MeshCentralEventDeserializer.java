@@ -4,14 +4,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openframe.data.model.enums.MessageType;
 import com.openframe.stream.mapping.SourceEventTypes;
+import com.openframe.stream.util.StreamingFieldExtractor;
 import com.openframe.stream.util.TimestampParser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -23,11 +23,14 @@ public class MeshCentralEventDeserializer extends IntegratedToolEventDeserialize
     private static final String FIELD_ID = "_id";
     private static final String FIELD_OID = "$oid";
     private static final String FIELD_MSG = "msg";
+    private static final String FIELD_TIME = "time";
+
+    private static final Set<String> DOCUMENT_FIELDS = Set.of(FIELD_NODEID, FIELD_ETYPE, FIELD_ACTION, FIELD_ID, FIELD_MSG, FIELD_TIME);
 
     public MeshCentralEventDeserializer(ObjectMapper mapper) {
         super(mapper,
-                List.of(SourceEventTypes.MeshCentral.SERVER_TIMELINE_STATS),
-                List.of());
+                Set.of(SourceEventTypes.MeshCentral.SERVER_TIMELINE_STATS),
+                Set.of());
     }
 
     @Override
@@ -35,62 +38,48 @@ public class MeshCentralEventDeserializer extends IntegratedToolEventDeserialize
         return MessageType.MESHCENTRAL_EVENT;
     }
 
+    /**
+     * MeshCentral events come from the MongoDB connector, so the document is an embedded JSON string.
+     * It is parsed once per message, materializing only the fields this deserializer reads; the skip-list
+     * check reads etype and action from the same result instead of tokenizing the document a second time.
+     */
     @Override
-    protected Optional<String> getAgentId(JsonNode after) {
-        if (after == null) {
-            log.warn("Invalid message structure for agent ID extraction");
-            return Optional.empty();
-        }
-        return parseAndExtractField(after, FIELD_NODEID);
-    }
-
-    @Override
-    protected Optional<String> getSourceEventType(JsonNode after) {
-        return parseJson(after)
-                .flatMap(event -> {
-                    Optional<String> etype = extractField(event, FIELD_ETYPE);
-                    Optional<String> action = extractField(event, FIELD_ACTION);
-
-                    if (etype.isPresent() && action.isPresent()) {
-                        return Optional.of("%s.%s".formatted(etype.get(), action.get()));
-                    }
-                    return etype.or(() -> action);
+    protected JsonNode parseDocument(JsonNode after) {
+        return Optional.ofNullable(after)
+                .map(JsonNode::asText)
+                .filter(StringUtils::isNotBlank)
+                .flatMap(json -> StreamingFieldExtractor.extractFields(mapper, json, DOCUMENT_FIELDS))
+                .map(JsonNode.class::cast)
+                .orElseGet(() -> {
+                    log.error("Failed to parse MeshCentral event document: {}", after);
+                    return mapper.createObjectNode();
                 });
     }
 
     @Override
-    protected Optional<String> getEventToolId(JsonNode after) {
-        return parseJson(after)
-                .flatMap(this::extractEventId);
+    protected Optional<String> getAgentId(JsonNode document) {
+        return extractField(document, FIELD_NODEID);
     }
 
     @Override
-    protected Optional<String> getMessage(JsonNode after) {
-        if (after == null) {
-            log.warn("Invalid message structure for message extraction");
-            return Optional.empty();
+    protected Optional<String> getSourceEventType(JsonNode document) {
+        Optional<String> etype = extractField(document, FIELD_ETYPE);
+        Optional<String> action = extractField(document, FIELD_ACTION);
+
+        if (etype.isPresent() && action.isPresent()) {
+            return Optional.of("%s.%s".formatted(etype.get(), action.get()));
         }
-        return parseAndExtractField(after, FIELD_MSG);
+        return etype.or(() -> action);
     }
 
-    private Optional<JsonNode> parseJson(JsonNode rawNode) {
-        return Optional.ofNullable(rawNode)
-                .map(JsonNode::asText)
-                .filter(StringUtils::isNotBlank)
-                .flatMap(json -> {
-                    try {
-                        return Optional.of(mapper.readTree(json));
-                    } catch (IOException e) {
-                        log.error("Failed to parse JSON from node: {}, error: {}",
-                                 rawNode, e.getMessage(), e);
-                        return Optional.empty();
-                    }
-                });
+    @Override
+    protected Optional<String> getEventToolId(JsonNode document) {
+        return extractEventId(document);
     }
 
-    private Optional<String> parseAndExtractField(JsonNode rawNode, String fieldName) {
-        return parseJson(rawNode)
-                .flatMap(event -> extractField(event, fieldName));
+    @Override
+    protected Optional<String> getMessage(JsonNode document) {
+        return extractField(document, FIELD_MSG);
     }
 
     private Optional<String> extractField(JsonNode event, String fieldName) {
@@ -111,8 +100,8 @@ public class MeshCentralEventDeserializer extends IntegratedToolEventDeserialize
     }
 
     @Override
-    protected Optional<Long> getSourceEventTimestamp(JsonNode afterField) {
-        return parseStringField(afterField, "time")
+    protected Optional<Long> getSourceEventTimestamp(JsonNode document) {
+        return parseStringField(document, FIELD_TIME)
                 .flatMap(TimestampParser::parseIso8601);
     }
 
@@ -3,14 +3,15 @@ package com.openframe.stream.deserializer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.openframe.data.model.enums.MessageType;
 import com.openframe.stream.service.TacticalRmmCacheService;
 import com.openframe.stream.util.TimestampParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -33,7 +34,7 @@ public class TrmmAgentHistoryEventDeserializer extends IntegratedToolEventDeseri
     private final TacticalRmmCacheService tacticalRmmCacheService;
 
     protected TrmmAgentHistoryEventDeserializer(ObjectMapper mapper, TacticalRmmCacheService tacticalRmmCacheService) {
-        super(mapper, List.of(), List.of());
+        super(mapper, Set.of(), Set.of());
         this.tacticalRmmCacheService = tacticalRmmCacheService;
     }
 
@@ -131,7 +132,7 @@ public class TrmmAgentHistoryEventDeserializer extends IntegratedToolEventDeseri
     }
 
     @Override
-    protected String getError(JsonNode after) {
+    protected JsonNode getError(JsonNode after) {
         // Parse script_results and extract error if stderr is present
         Optional<String> scriptResults = parseStringField(after, FIELD_SCRIPT_RESULTS);
         
@@ -145,7 +146,7 @@ public class TrmmAgentHistoryEventDeserializer extends IntegratedToolEventDeseri
                     if (stderr != null && !stderr.trim().isEmpty()) {
                         ObjectNode errorNode = mapper.createObjectNode();
                         errorNode.put(DETAILS_OUTPUT, stderr);
-                        return mapper.writeValueAsString(errorNode);
+                        return errorNode;
                     }
                 }
             } catch (Exception e) {
@@ -157,7 +158,7 @@ public class TrmmAgentHistoryEventDeserializer extends IntegratedToolEventDeseri
     }
     
     @Override
-    protected String getResult(JsonNode after) {
+    protected JsonNode getResult(JsonNode after) {
         // For script_run events, use script_results
         Optional<String> scriptResults = parseStringField(after, FIELD_SCRIPT_RESULTS);
         if (scriptResults.isPresent()) {
@@ -172,24 +173,20 @@ public class TrmmAgentHistoryEventDeserializer extends IntegratedToolEventDeseri
                     resultNode.put(DETAILS_EXECUTION_TIME, scriptResultsNode.get(DETAILS_EXECUTION_TIME).asDouble());
                 }
                 
-                return mapper.writeValueAsString(resultNode);
+                return resultNode;
             } catch (Exception e) {
                 log.error("Failed to parse script_results for result extraction", e);
                 // Return original script_results as is
-                return scriptResults.get();
+                return TextNode.valueOf(scriptResults.get());
             }
         }
         
         // For cmd_run events, use results field
         Optional<String> results = parseStringField(after, FIELD_RESULTS);
         if (results.isPresent()) {
-            try {
-                ObjectNode resultNode = mapper.createObjectNode();
-                resultNode.put(DETAILS_OUTPUT, results.get());
-                return mapper.writeValueAsString(resultNode);
-            } catch (Exception e) {
-                log.error("Failed to create result from results field", e);
-            }
+            ObjectNode resultNode = mapper.createObjectNode();
+            resultNode.put(DETAILS_OUTPUT, results.get());
+            return resultNode;
         }
         
         return null;
@@ -8,8 +8,8 @@ import com.openframe.stream.util.TimestampParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -25,8 +25,8 @@ public class TrmmAuditEventDeserializer extends IntegratedToolEventDeserializer
 
     public TrmmAuditEventDeserializer(ObjectMapper objectMapper) {
         super(objectMapper,
-                List.of(),
-                List.of(SourceEventTypes.Tactical.AGENT_EXECUTE_SCRIPT, SourceEventTypes.Tactical.AGENT_EXECUTE_COMMAND)
+                Set.of(),
+                Set.of(SourceEventTypes.Tactical.AGENT_EXECUTE_SCRIPT, SourceEventTypes.Tactical.AGENT_EXECUTE_COMMAND)
         );
     }
 
@@ -0,0 +1,36 @@
+package com.openframe.stream.endpoint;
+
+import com.openframe.stream.config.KafkaRetryConfig;
+import com.openframe.stream.service.DeadLetterService;
+import com.openframe.stream.service.DeadLetterService.ReplayResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint replaying dead letters to their original topic:
+ * POST {management base path}/deadletters/{dead letter topic}?maxRecords=100
+ * It lives on the management port only and has to be added to management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "deadletters")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = KafkaRetryConfig.RETRY_ENABLED, havingValue = "true")
+public class DeadLetterEndpoint {
+
+    private static final int DEFAULT_MAX_RECORDS = 100;
+
+    private final DeadLetterService deadLetterService;
+
+    @WriteOperation
+    public ReplayResult replay(@Selector String topic, @Nullable Integer maxRecords) {
+        if (!topic.endsWith(KafkaRetryConfig.DLT_SUFFIX)) {
+            throw new IllegalArgumentException("Not a dead letter topic: " + topic);
+        }
+        return deadLetterService.replay(topic, maxRecords != null ? maxRecords : DEFAULT_MAX_RECORDS);
+    }
+}
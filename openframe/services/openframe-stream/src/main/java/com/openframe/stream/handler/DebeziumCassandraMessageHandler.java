@@ -2,25 +2,35 @@ package com.openframe.stream.handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openframe.data.model.cassandra.UnifiedLogEvent;
+import com.openframe.stream.enumeration.OperationType;
+import com.openframe.stream.model.batch.EnrichedMessage;
+import com.openframe.stream.model.batch.HandlerFailure;
 import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
 import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.Destination;
 import com.openframe.data.model.enums.EventHandlerType;
+import com.openframe.stream.service.UnifiedLogEventBatchWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.cassandra.repository.CassandraRepository;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
 public class DebeziumCassandraMessageHandler extends DebeziumMessageHandler<UnifiedLogEvent, DeserializedDebeziumMessage> {
 
     private final CassandraRepository repository;
+    private final UnifiedLogEventBatchWriter batchWriter;
 
-    protected DebeziumCassandraMessageHandler(CassandraRepository repository, ObjectMapper objectMapper) {
+    protected DebeziumCassandraMessageHandler(CassandraRepository repository, UnifiedLogEventBatchWriter batchWriter, ObjectMapper objectMapper) {
         super(objectMapper);
         this.repository = repository;
+        this.batchWriter = batchWriter;
     }
 
     @Override
@@ -58,6 +68,31 @@ public class DebeziumCassandraMessageHandler extends DebeziumMessageHandler<Unif
         return logEvent;
     }
 
+    /**
+     * Transforms the batch and writes it through the async batch writer instead of one save per event.
+     * Returns only once every write is acknowledged, so the batch listener commits offsets after the flush.
+     */
+    @Override
+    public List<HandlerFailure<DeserializedDebeziumMessage>> handleBatch(List<EnrichedMessage<DeserializedDebeziumMessage, IntegratedToolEnrichedData>> batch) {
+        List<HandlerFailure<DeserializedDebeziumMessage>> failures = new ArrayList<>();
+        Map<UnifiedLogEvent, DeserializedDebeziumMessage> logEvents = new IdentityHashMap<>();
+        for (EnrichedMessage<DeserializedDebeziumMessage, IntegratedToolEnrichedData> item : batch) {
+            DeserializedDebeziumMessage message = item.message();
+            try {
+                OperationType operationType = getOperationType(message);
+                if (isValidMessage(message) && operationType != null && operationType != OperationType.DELETE) {
+                    logEvents.put(transform(message, item.extraParams()), message);
+                }
+            } catch (Exception e) {
+                failures.add(new HandlerFailure<>(message, e));
+            }
+        }
+
+        batchWriter.write(new ArrayList<>(logEvents.keySet()))
+                .forEach(failed -> failures.add(new HandlerFailure<>(logEvents.get(failed.event()), failed.error())));
+        return failures;
+    }
+
     protected UnifiedLogEvent.UnifiedLogEventKey createKey(DeserializedDebeziumMessage debeziumMessage) {
         UnifiedLogEvent.UnifiedLogEventKey key = new UnifiedLogEvent.UnifiedLogEventKey();
         Instant timestamp = Instant.ofEpochMilli(debeziumMessage.getEventTimestamp());
@@ -7,10 +7,13 @@ import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.EventHandlerType;
 import com.openframe.data.model.enums.Destination;
 import com.openframe.kafka.model.IntegratedToolEvent;
+import com.openframe.stream.service.TransactionalEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Slf4j
 @Component
 public class DebeziumKafkaMessageHandler extends DebeziumMessageHandler<IntegratedToolEvent, DeserializedDebeziumMessage> {
@@ -20,9 +23,17 @@ public class DebeziumKafkaMessageHandler extends DebeziumMessageHandler<Integrat
 
     protected final OssTenantRetryingKafkaProducer kafkaProducer;
 
-    public DebeziumKafkaMessageHandler(OssTenantRetryingKafkaProducer kafkaProducer, ObjectMapper objectMapper) {
+    private final TransactionalEventPublisher transactionalPublisher;
+
+    /**
+     * @param transactionalPublisher present in exactly-once mode; events are then published
+     *                               in the transaction of the consumed poll instead of with retries
+     */
+    public DebeziumKafkaMessageHandler(OssTenantRetryingKafkaProducer kafkaProducer, ObjectMapper objectMapper,
+                                       Optional<TransactionalEventPublisher> transactionalPublisher) {
         super(objectMapper);
         this.kafkaProducer = kafkaProducer;
+        this.transactionalPublisher = transactionalPublisher.orElse(null);
     }
 
     @Override
@@ -52,7 +63,11 @@ public class DebeziumKafkaMessageHandler extends DebeziumMessageHandler<Integrat
     }
 
     protected void handleCreate(IntegratedToolEvent message) {
-        kafkaProducer.publish(topic, buildMessageBrokerKey(message), message);
+        if (transactionalPublisher != null) {
+            transactionalPublisher.publish(topic, buildMessageBrokerKey(message), message);
+        } else {
+            kafkaProducer.publish(topic, buildMessageBrokerKey(message), message);
+        }
     }
 
     protected void handleRead(IntegratedToolEvent message) {
@@ -66,6 +81,14 @@ public class DebeziumKafkaMessageHandler extends DebeziumMessageHandler<Integrat
     protected void handleDelete(IntegratedToolEvent data) {
     }
 
+    /**
+     * A Kafka transaction belongs to the polling thread, so transactional sends can't run on lane threads.
+     */
+    @Override
+    public boolean requiresPollingThread() {
+        return transactionalPublisher != null;
+    }
+
     @Override
     public EventHandlerType getType() {
         return EventHandlerType.COMMON_TYPE;
@@ -1,10 +1,15 @@
 package com.openframe.stream.handler;
 
+import com.openframe.stream.model.batch.EnrichedMessage;
+import com.openframe.stream.model.batch.HandlerFailure;
 import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
 import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.Destination;
 import com.openframe.data.model.enums.EventHandlerType;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface MessageHandler<U extends DeserializedDebeziumMessage, V extends IntegratedToolEnrichedData> {
 
     EventHandlerType getType();
@@ -13,4 +18,30 @@ public interface MessageHandler<U extends DeserializedDebeziumMessage, V extends
 
     void handle(U message, V extraParams);
 
+    /**
+     * Handle a whole batch of messages. Defaults to handling them one by one;
+     * a failing message does not stop the rest of the batch.
+     *
+     * @return messages that could not be handled, empty if the whole batch succeeded
+     */
+    default List<HandlerFailure<U>> handleBatch(List<EnrichedMessage<U, V>> batch) {
+        List<HandlerFailure<U>> failures = new ArrayList<>();
+        for (EnrichedMessage<U, V> item : batch) {
+            try {
+                handle(item.message(), item.extraParams());
+            } catch (Exception e) {
+                failures.add(new HandlerFailure<>(item.message(), e));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Whether batches must be handled on the thread that polled them, e.g. because the handler publishes
+     * in the poll's Kafka transaction. Such batches are not run on the key-ordered lanes.
+     */
+    default boolean requiresPollingThread() {
+        return false;
+    }
+
 }
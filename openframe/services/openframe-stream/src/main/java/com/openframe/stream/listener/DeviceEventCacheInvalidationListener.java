@@ -0,0 +1,128 @@
+package com.openframe.stream.listener;
+
+import com.openframe.stream.service.MachineInfoNearCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidates the enrichment near-cache when the client service publishes a device change.
+ * The devices topic is keyed by machine id, so only the record key is used.
+ * <p>
+ * Every instance must see every change, so the consumer assigns itself all partitions of the topic
+ * without a consumer group and starts at the end: nothing is committed and no group is left behind
+ * on the broker when the pod goes away. Partitions added to the topic later are picked up on restart.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "openframe.oss-tenant.enrichment.near-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceEventCacheInvalidationListener {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration ERROR_BACKOFF = Duration.ofSeconds(5);
+
+    private final MachineInfoNearCache machineInfoNearCache;
+    private final String bootstrapServers;
+    private final String devicesTopic;
+
+    private volatile boolean running = true;
+    private volatile KafkaConsumer<String, byte[]> consumer;
+    private Thread pollThread;
+
+    public DeviceEventCacheInvalidationListener(MachineInfoNearCache machineInfoNearCache,
+                                                @Value("${spring.oss-tenant.kafka.bootstrap-servers}") String bootstrapServers,
+                                                @Value("${openframe.oss-tenant.kafka.topics.inbound.devices-topic:devices-topic}") String devicesTopic) {
+        this.machineInfoNearCache = machineInfoNearCache;
+        this.bootstrapServers = bootstrapServers;
+        this.devicesTopic = devicesTopic;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pollThread = Thread.ofVirtual().name("near-cache-invalidation").start(this::run);
+    }
+
+    private void run() {
+        while (running) {
+            try (KafkaConsumer<String, byte[]> kafkaConsumer = new KafkaConsumer<>(consumerProperties())) {
+                consumer = kafkaConsumer;
+                List<TopicPartition> partitions = kafkaConsumer.partitionsFor(devicesTopic).stream()
+                        .map(info -> new TopicPartition(info.topic(), info.partition()))
+                        .toList();
+                if (partitions.isEmpty()) {
+                    throw new IllegalStateException("Topic " + devicesTopic + " has no partitions");
+                }
+                kafkaConsumer.assign(partitions);
+                kafkaConsumer.seekToEnd(partitions);
+                // Anything cached before the consumer was positioned may already be stale
+                machineInfoNearCache.invalidateAll();
+                log.info("Invalidating near-cache from {} ({} partitions)", devicesTopic, partitions.size());
+
+                while (running) {
+                    for (ConsumerRecord<String, byte[]> record : kafkaConsumer.poll(POLL_TIMEOUT)) {
+                        if (record.key() != null) {
+                            machineInfoNearCache.invalidateMachine(record.key());
+                        }
+                    }
+                }
+            } catch (WakeupException e) {
+                // shutdown
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Near-cache invalidation consumer for {} failed, restarting", devicesTopic, e);
+                machineInfoNearCache.invalidateAll();
+                try {
+                    Thread.sleep(ERROR_BACKOFF);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return props;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        KafkaConsumer<String, byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (pollThread != null) {
+            try {
+                pollThread.join(POLL_TIMEOUT.multipliedBy(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.openframe.stream.listener;
+
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.enumeration.KafkaHeader;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.stream.config.KafkaConfig;
+import com.openframe.stream.model.batch.BatchProcessingResult;
+import com.openframe.stream.model.batch.BatchRecord;
+import com.openframe.stream.processor.GenericJsonMessageProcessor;
+import com.openframe.stream.service.DeadLetterService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch counterpart of {@link JsonKafkaListener}: receives the whole poll and hands it to
+ * {@link GenericJsonMessageProcessor#processBatch}. Each inbound topic has its own listener so
+ * max.poll.records and concurrency can be tuned per topic, falling back to the shared batch settings.
+ * With retry topics enabled, records that failed are published to the dead letter topic of their source topic.
+ * Otherwise the first failed record is reported with a {@link BatchListenerFailedException}: the container commits
+ * the records before it and redelivers the rest of the poll from that record on, see KafkaConfig.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "openframe.oss-tenant.kafka.consumer.batch.enabled", havingValue = "true")
+public class JsonKafkaBatchListener {
+
+    private static final String BATCH = "openframe.oss-tenant.kafka.consumer.batch.";
+    private static final String DEFAULT_MAX_POLL_RECORDS = "${" + BATCH + "max-poll-records:500}";
+    private static final String DEFAULT_CONCURRENCY = "${" + BATCH + "concurrency:1}";
+
+    private static final String MESHCENTRAL = BATCH + "meshcentral-events.";
+    private static final String TACTICAL = BATCH + "tactical-rmm-events.";
+    private static final String FLEET = BATCH + "fleet-mdm-events.";
+    private static final String FLEET_QUERY_RESULT = BATCH + "fleet-mdm-query-result-events.";
+
+    private final GenericJsonMessageProcessor messageProcessor;
+    private final Converter<byte[], MessageType> messageTypeConverter;
+    private final DeadLetterService deadLetterService;
+
+    public JsonKafkaBatchListener(GenericJsonMessageProcessor messageProcessor, Converter<byte[], MessageType> messageTypeConverter,
+                                  ObjectProvider<DeadLetterService> deadLetterService) {
+        this.messageProcessor = messageProcessor;
+        this.messageTypeConverter = messageTypeConverter;
+        this.deadLetterService = deadLetterService.getIfAvailable();
+    }
+
+    @KafkaListener(
+            id = "meshcentral-events-batch",
+            topics = "${openframe.oss-tenant.kafka.topics.inbound.meshcentral-events}",
+            groupId = "${spring.oss-tenant.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            concurrency = "${" + MESHCENTRAL + "concurrency:" + DEFAULT_CONCURRENCY + "}",
+            properties = "max.poll.records=${" + MESHCENTRAL + "max-poll-records:" + DEFAULT_MAX_POLL_RECORDS + "}"
+    )
+    public void listenMeshCentralEvents(List<ConsumerRecord<String, CommonDebeziumMessage>> records) {
+        process(records);
+    }
+
+    @KafkaListener(
+            id = "tactical-rmm-events-batch",
+            topics = "${openframe.oss-tenant.kafka.topics.inbound.tactical-rmm-events}",
+            groupId = "${spring.oss-tenant.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            concurrency = "${" + TACTICAL + "concurrency:" + DEFAULT_CONCURRENCY + "}",
+            properties = "max.poll.records=${" + TACTICAL + "max-poll-records:" + DEFAULT_MAX_POLL_RECORDS + "}"
+    )
+    public void listenTacticalRmmEvents(List<ConsumerRecord<String, CommonDebeziumMessage>> records) {
+        process(records);
+    }
+
+    @KafkaListener(
+            id = "fleet-mdm-events-batch",
+            topics = "${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-events}",
+            groupId = "${spring.oss-tenant.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            concurrency = "${" + FLEET + "concurrency:" + DEFAULT_CONCURRENCY + "}",
+            properties = "max.poll.records=${" + FLEET + "max-poll-records:" + DEFAULT_MAX_POLL_RECORDS + "}"
+    )
+    public void listenFleetMdmEvents(List<ConsumerRecord<String, CommonDebeziumMessage>> records) {
+        process(records);
+    }
+
+    @KafkaListener(
+            id = "fleet-mdm-query-result-events-batch",
+            topics = "${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-query-result-events}",
+            groupId = "${spring.oss-tenant.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            concurrency = "${" + FLEET_QUERY_RESULT + "concurrency:" + DEFAULT_CONCURRENCY + "}",
+            properties = "max.poll.records=${" + FLEET_QUERY_RESULT + "max-poll-records:" + DEFAULT_MAX_POLL_RECORDS + "}"
+    )
+    public void listenFleetMdmQueryResultEvents(List<ConsumerRecord<String, CommonDebeziumMessage>> records) {
+        process(records);
+    }
+
+    private void process(List<ConsumerRecord<String, CommonDebeziumMessage>> records) {
+        List<BatchRecord> batch = new ArrayList<>(records.size());
+        Map<BatchRecord, ConsumerRecord<String, CommonDebeziumMessage>> sources = new IdentityHashMap<>();
+        for (ConsumerRecord<String, CommonDebeziumMessage> record : records) {
+            MessageType messageType = getMessageType(record);
+            if (record.value() == null || messageType == null) {
+                log.warn("Skipping record {}-{}@{} without payload or message type", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            BatchRecord batchRecord = new BatchRecord(record.topic(), record.partition(), record.offset(), record.value(), messageType);
+            batch.add(batchRecord);
+            sources.put(batchRecord, record);
+        }
+
+        BatchProcessingResult result = messageProcessor.processBatch(batch);
+        if (result.hasFailures()) {
+            log.warn("Processed batch of {} records: {} processed, {} skipped, {} failed",
+                    records.size(), result.processed(), result.skipped(), result.failures().size());
+            if (deadLetterService != null) {
+                result.failures().forEach(failure -> deadLetterService.publish(sources.get(failure.record()), failure.error()));
+            } else {
+                throw firstFailure(records, sources, result);
+            }
+        } else {
+            log.debug("Processed batch of {} records: {} processed, {} skipped",
+                    records.size(), result.processed(), result.skipped());
+        }
+    }
+
+    private BatchListenerFailedException firstFailure(List<ConsumerRecord<String, CommonDebeziumMessage>> records,
+                                                      Map<BatchRecord, ConsumerRecord<String, CommonDebeziumMessage>> sources,
+                                                      BatchProcessingResult result) {
+        Map<ConsumerRecord<String, CommonDebeziumMessage>, Exception> failed = new IdentityHashMap<>();
+        result.failures().forEach(failure -> failed.putIfAbsent(sources.get(failure.record()), failure.error()));
+        for (int index = 0; index < records.size(); index++) {
+            Exception error = failed.get(records.get(index));
+            if (error != null) {
+                return new BatchListenerFailedException("Failed to process record " + describe(records.get(index)), error, index);
+            }
+        }
+        throw new IllegalStateException("Failed records are not part of the polled batch");
+    }
+
+    private static String describe(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private MessageType getMessageType(ConsumerRecord<String, CommonDebeziumMessage> record) {
+        Header header = record.headers().lastHeader(KafkaHeader.MESSAGE_TYPE_HEADER);
+        return header != null ? messageTypeConverter.convert(header.value()) : null;
+    }
+}
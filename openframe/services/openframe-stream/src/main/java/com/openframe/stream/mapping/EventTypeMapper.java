@@ -3,37 +3,65 @@ package com.openframe.stream.mapping;
 import com.openframe.data.model.enums.IntegratedToolType;
 import com.openframe.data.model.enums.UnifiedEventType;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.map.HashedMap;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps tool specific event types to unified event types.
+ * Mappings are held per tool type in immutable maps, so a lookup needs no key building.
+ * The built-in mappings can be extended or overridden at runtime with {@link #reload(Map)}.
+ */
 @Slf4j
 public class EventTypeMapper {
 
-    private static final Map<String, UnifiedEventType> mappings = new HashedMap<>();
+    private static final Map<IntegratedToolType, Map<String, UnifiedEventType>> defaultMappings = new EnumMap<>(IntegratedToolType.class);
+
+    private static volatile Map<IntegratedToolType, Map<String, UnifiedEventType>> mappings;
 
     static {
         initializeDefaultMappings();
+        mappings = freeze(defaultMappings);
     }
 
     public static UnifiedEventType mapToUnifiedType(IntegratedToolType toolType, String sourceEventType) {
-        String toolName = toolType.getDbName();
-        String key = toolName + ":" + sourceEventType;
-        UnifiedEventType unifiedType = mappings.get(key);
+        Map<String, UnifiedEventType> toolMappings = mappings.get(toolType);
+        UnifiedEventType unifiedType = toolMappings != null && sourceEventType != null ? toolMappings.get(sourceEventType) : null;
 
         if (unifiedType == null) {
-            log.debug("No mapping found for {}:{}, using UNKNOWN", toolName, sourceEventType);
+            log.debug("No mapping found for {}:{}, using UNKNOWN", toolType.getDbName(), sourceEventType);
             return UnifiedEventType.UNKNOWN;
         }
 
-        log.debug("Mapped {}:{} -> {}", toolName, sourceEventType, unifiedType);
+        log.debug("Mapped {}:{} -> {}", toolType.getDbName(), sourceEventType, unifiedType);
         return unifiedType;
     }
 
+    /**
+     * Replace the active mappings with the built-in ones plus the given overrides.
+     * An override wins over a built-in mapping for the same tool and source event type.
+     */
+    public static void reload(Map<IntegratedToolType, Map<String, UnifiedEventType>> overrides) {
+        Map<IntegratedToolType, Map<String, UnifiedEventType>> merged = new EnumMap<>(IntegratedToolType.class);
+        defaultMappings.forEach((toolType, toolMappings) -> merged.put(toolType, new HashMap<>(toolMappings)));
+        overrides.forEach((toolType, toolMappings) ->
+                merged.computeIfAbsent(toolType, type -> new HashMap<>()).putAll(toolMappings));
+        mappings = freeze(merged);
+        log.info("Reloaded event type mappings with {} overrides",
+                overrides.values().stream().mapToInt(Map::size).sum());
+    }
+
     private static void registerMapping(IntegratedToolType toolName, String sourceEventType, UnifiedEventType unifiedType) {
-        String key = toolName.getDbName() + ":" + sourceEventType;
-        mappings.put(key, unifiedType);
-        log.info("Registered mapping: {}:{} -> {}", toolName.getDbName(), sourceEventType, unifiedType);
+        defaultMappings.computeIfAbsent(toolName, type -> new HashMap<>()).put(sourceEventType, unifiedType);
+        log.debug("Registered mapping: {}:{} -> {}", toolName.getDbName(), sourceEventType, unifiedType);
+    }
+
+    private static Map<IntegratedToolType, Map<String, UnifiedEventType>> freeze(Map<IntegratedToolType, Map<String, UnifiedEventType>> source) {
+        Map<IntegratedToolType, Map<String, UnifiedEventType>> frozen = new EnumMap<>(IntegratedToolType.class);
+        source.forEach((toolType, toolMappings) -> frozen.put(toolType, Map.copyOf(toolMappings)));
+        return Collections.unmodifiableMap(frozen);
     }
 
     private static void initializeDefaultMappings() {
@@ -0,0 +1,26 @@
+package com.openframe.stream.mapping;
+
+import com.openframe.stream.config.prop.EventTypeMappingProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured mapping overrides on startup and after every configuration refresh,
+ * once the properties have been rebound. The startup load runs during bean initialization,
+ * before the Kafka listener containers start, so no record is mapped with the built-in table alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventTypeMappingReloader {
+
+    private final EventTypeMappingProperties properties;
+
+    @PostConstruct
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        EventTypeMapper.reload(properties.getOverrides());
+    }
+}
@@ -192,7 +192,7 @@ public final class FleetActivityTypeMapping {
         // Setup Experience
         messages.put("edited_setup_experience_software", "Edited setup experience software");
         
-        return messages;
+        return Map.copyOf(messages);
     }
     
     /**
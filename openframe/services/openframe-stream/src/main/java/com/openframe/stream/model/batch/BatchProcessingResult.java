@@ -0,0 +1,17 @@
+package com.openframe.stream.model.batch;
+
+import java.util.List;
+
+/**
+ * Outcome of processing a polled batch: how many records were dispatched or skipped,
+ * and the records that failed at any stage.
+ */
+public record BatchProcessingResult(int processed, int skipped, List<FailedRecord> failures) {
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public record FailedRecord(BatchRecord record, Exception error) {
+    }
+}
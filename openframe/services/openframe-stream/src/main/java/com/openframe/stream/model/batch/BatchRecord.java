@@ -0,0 +1,11 @@
+package com.openframe.stream.model.batch;
+
+import com.openframe.data.model.enums.MessageType;
+import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+
+/**
+ * A single inbound CDC record of a polled batch together with its Kafka coordinates,
+ * so failures can be reported (and later re-routed) per record.
+ */
+public record BatchRecord(String topic, int partition, long offset, CommonDebeziumMessage message, MessageType type) {
+}
@@ -0,0 +1,10 @@
+package com.openframe.stream.model.batch;
+
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
+
+/**
+ * Deserialized message paired with its enrichment data, as dispatched to a handler in batch mode.
+ */
+public record EnrichedMessage<U extends DeserializedDebeziumMessage, V extends IntegratedToolEnrichedData>(U message, V extraParams) {
+}
@@ -0,0 +1,9 @@
+package com.openframe.stream.model.batch;
+
+import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
+
+/**
+ * Message a handler could not process within a batch, with the cause.
+ */
+public record HandlerFailure<U extends DeserializedDebeziumMessage>(U message, Exception error) {
+}
@@ -1,6 +1,11 @@
 package com.openframe.stream.processor;
 
 import com.openframe.kafka.model.debezium.CommonDebeziumMessage;
+import com.openframe.stream.model.batch.BatchProcessingResult;
+import com.openframe.stream.model.batch.BatchProcessingResult.FailedRecord;
+import com.openframe.stream.model.batch.BatchRecord;
+import com.openframe.stream.model.batch.EnrichedMessage;
+import com.openframe.stream.model.batch.HandlerFailure;
 import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
 import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.EventHandlerType;
@@ -10,21 +15,36 @@ import com.openframe.data.model.enums.Destination;
 import com.openframe.data.model.enums.MessageType;
 import com.openframe.stream.handler.MessageHandler;
 import com.openframe.stream.service.DataEnrichmentService;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Service
 public class GenericJsonMessageProcessor {
 
     private final Map<EventHandlerType, Map<Destination, MessageHandler>> handlers;
     private final Map<DataEnrichmentServiceType, DataEnrichmentService> dataEnrichmentServices;
     private final Map<MessageType, KafkaMessageDeserializer> deserializers;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final StreamMetrics streamMetrics;
 
-    public GenericJsonMessageProcessor(List<MessageHandler> handlers, List<DataEnrichmentService> dataEnrichmentServices, List<KafkaMessageDeserializer> deserializers) {
+    public GenericJsonMessageProcessor(List<MessageHandler> handlers, List<DataEnrichmentService> dataEnrichmentServices, List<KafkaMessageDeserializer> deserializers,
+                                       KeyOrderedExecutor keyOrderedExecutor, StreamMetrics streamMetrics) {
         this.handlers = handlers.stream()
                 .collect(Collectors.groupingBy(
                         MessageHandler::getType,
@@ -37,23 +57,212 @@ public class GenericJsonMessageProcessor {
                 .collect(Collectors.toMap(DataEnrichmentService::getType, Function.identity()));
         this.deserializers = deserializers.stream()
                 .collect(Collectors.toMap(KafkaMessageDeserializer::getType, Function.identity()));
+        this.keyOrderedExecutor = keyOrderedExecutor;
+        this.streamMetrics = streamMetrics;
     }
 
     public void process(CommonDebeziumMessage message, MessageType type) {
-        DeserializedDebeziumMessage deserializedKafkaMessage = deserialize(message, type);
-        if (deserializedKafkaMessage == null || deserializedKafkaMessage.getSkipProcessing()) {
-            return;
+        try {
+            Timer.Sample deserializeSample = streamMetrics.start();
+            DeserializedDebeziumMessage deserializedKafkaMessage = deserialize(message, type);
+            streamMetrics.recordStage(deserializeSample, StreamMetrics.DESERIALIZE, type, null);
+            if (deserializedKafkaMessage == null || deserializedKafkaMessage.getSkipProcessing()) {
+                streamMetrics.countMessages(StreamMetrics.SKIPPED, type, 1);
+                return;
+            }
+
+            Timer.Sample enrichSample = streamMetrics.start();
+            IntegratedToolEnrichedData enrichedData = getExtraParams(deserializedKafkaMessage, type);
+            streamMetrics.recordStage(enrichSample, StreamMetrics.ENRICH, type, null);
+
+            type.getDestinationList().forEach(destination -> {
+                MessageHandler handler = getHandler(type, destination);
+                Timer.Sample handleSample = streamMetrics.start();
+                handler.handle(deserializedKafkaMessage, enrichedData);
+                streamMetrics.recordStage(handleSample, StreamMetrics.HANDLE, type, destination);
+                streamMetrics.recordEndToEndLag(type, destination, deserializedKafkaMessage.getEventTimestamp());
+            });
+            streamMetrics.countMessages(StreamMetrics.PROCESSED, type, 1);
+        } catch (RuntimeException e) {
+            streamMetrics.countMessages(StreamMetrics.FAILED, type, 1);
+            throw e;
+        }
+    }
+
+    /**
+     * Process a polled batch. Records are deserialized concurrently and enriched with one bulk lookup
+     * per message type, then dispatched on key-ordered lanes (by agent, falling back to the
+     * tool event id): every handler receives a lane's messages in one {@link MessageHandler#handleBatch}
+     * call, so events of one device keep their order while different devices are handled in parallel.
+     * Handlers that must run on the polling thread (publishing in the poll's Kafka transaction)
+     * get their lane batches after the lanes are done, one lane after another, so per-key order still holds.
+     * A failing record is reported in the result and never fails the rest of the batch.
+     */
+    public BatchProcessingResult processBatch(List<BatchRecord> records) {
+        Map<BatchRecord, FailedRecord> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+        DeserializedDebeziumMessage[] deserialized = new DeserializedDebeziumMessage[records.size()];
+
+        List<Integer> indexes = IntStream.range(0, records.size()).boxed().toList();
+        keyOrderedExecutor.executeUnordered(indexes,
+                slice -> slice.forEach(index -> deserialized[index] = deserialize(records.get(index), failures)));
+
+        List<PreparedMessage> messages = enrich(records, deserialized, failures);
+        int skipped = records.size() - messages.size() - failures.size();
+        Queue<DeferredBatch> deferred = new ConcurrentLinkedQueue<>();
+        keyOrderedExecutor.executeOrdered(messages, PreparedMessage::orderingKey, lane -> dispatch(lane, failures, deferred));
+        deferred.forEach(batch -> handle(batch.key(), batch.messages(), batch.sources(), failures));
+
+        int processed = records.size() - skipped - failures.size();
+        countOutcomes(messages, failures);
+        return new BatchProcessingResult(processed, skipped, new ArrayList<>(failures.values()));
+    }
+
+    private void countOutcomes(List<PreparedMessage> messages, Map<BatchRecord, FailedRecord> failures) {
+        Map<MessageType, Integer> processedByType = new EnumMap<>(MessageType.class);
+        for (PreparedMessage message : messages) {
+            if (!failures.containsKey(message.record())) {
+                processedByType.merge(message.record().type(), 1, Integer::sum);
+            }
+        }
+        processedByType.forEach((type, count) -> streamMetrics.countMessages(StreamMetrics.PROCESSED, type, count));
+        failures.keySet().forEach(record -> streamMetrics.countMessages(StreamMetrics.FAILED, record.type(), 1));
+    }
+
+    private DeserializedDebeziumMessage deserialize(BatchRecord record, Map<BatchRecord, FailedRecord> failures) {
+        try {
+            Timer.Sample sample = streamMetrics.start();
+            DeserializedDebeziumMessage deserializedKafkaMessage = deserialize(record.message(), record.type());
+            streamMetrics.recordStage(sample, StreamMetrics.DESERIALIZE, record.type(), null);
+            if (deserializedKafkaMessage == null || deserializedKafkaMessage.getSkipProcessing()) {
+                streamMetrics.countMessages(StreamMetrics.SKIPPED, record.type(), 1);
+                return null;
+            }
+            return deserializedKafkaMessage;
+        } catch (Exception e) {
+            log.error("Failed to deserialize record {}-{}@{} of type {}", record.topic(), record.partition(), record.offset(), record.type(), e);
+            failures.putIfAbsent(record, new FailedRecord(record, e));
+            return null;
+        }
+    }
+
+    /**
+     * Enrich all deserialized messages with one batch call per message type. If the batch call
+     * fails, the messages of that type are enriched one by one so a single bad lookup stays isolated.
+     */
+    @SuppressWarnings("unchecked")
+    private List<PreparedMessage> enrich(List<BatchRecord> records, DeserializedDebeziumMessage[] deserialized,
+                                         Map<BatchRecord, FailedRecord> failures) {
+        Map<MessageType, List<Integer>> indexesByType = new EnumMap<>(MessageType.class);
+        for (int i = 0; i < deserialized.length; i++) {
+            if (deserialized[i] != null) {
+                indexesByType.computeIfAbsent(records.get(i).type(), type -> new ArrayList<>()).add(i);
+            }
+        }
+
+        IntegratedToolEnrichedData[] enrichedData = new IntegratedToolEnrichedData[deserialized.length];
+        indexesByType.forEach((messageType, typeIndexes) -> {
+            DataEnrichmentService dataEnrichmentService = dataEnrichmentServices.get(messageType.getDataEnrichmentServiceType());
+            try {
+                Timer.Sample sample = streamMetrics.start();
+                List<IntegratedToolEnrichedData> results = dataEnrichmentService.getExtraParamsBatch(
+                        typeIndexes.stream().map(index -> deserialized[index]).toList());
+                streamMetrics.recordStage(sample, StreamMetrics.ENRICH, messageType, null);
+                for (int i = 0; i < typeIndexes.size(); i++) {
+                    enrichedData[typeIndexes.get(i)] = results.get(i);
+                }
+            } catch (Exception e) {
+                log.error("Batch enrichment failed for {} messages of {}, enriching one by one", typeIndexes.size(), messageType, e);
+                for (Integer index : typeIndexes) {
+                    BatchRecord record = records.get(index);
+                    try {
+                        enrichedData[index] = getExtraParams(deserialized[index], record.type());
+                    } catch (Exception recordError) {
+                        log.error("Failed to enrich record {}-{}@{}", record.topic(), record.partition(), record.offset(), recordError);
+                        failures.putIfAbsent(record, new FailedRecord(record, recordError));
+                    }
+                }
+            }
+        });
+
+        List<PreparedMessage> messages = new ArrayList<>();
+        for (int i = 0; i < deserialized.length; i++) {
+            if (deserialized[i] != null && enrichedData[i] != null) {
+                messages.add(new PreparedMessage(records.get(i), deserialized[i], enrichedData[i]));
+            }
+        }
+        return messages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(List<PreparedMessage> lane, Map<BatchRecord, FailedRecord> failures, Queue<DeferredBatch> deferred) {
+        Map<HandlerBatchKey, List<EnrichedMessage>> handlerBatches = new LinkedHashMap<>();
+        Map<DeserializedDebeziumMessage, BatchRecord> sources = new IdentityHashMap<>();
+        for (PreparedMessage message : lane) {
+            BatchRecord record = message.record();
+            try {
+                // Resolve every handler first, so a record is either queued for all its destinations or for none
+                List<HandlerBatchKey> keys = record.type().getDestinationList().stream()
+                        .map(destination -> new HandlerBatchKey(getHandler(record.type(), destination), record.type()))
+                        .toList();
+                sources.put(message.message(), record);
+                for (HandlerBatchKey key : keys) {
+                    handlerBatches.computeIfAbsent(key, k -> new ArrayList<>())
+                            .add(new EnrichedMessage<>(message.message(), message.enrichedData()));
+                }
+            } catch (Exception e) {
+                log.error("Failed to dispatch record {}-{}@{} of type {}", record.topic(), record.partition(), record.offset(), record.type(), e);
+                failures.putIfAbsent(record, new FailedRecord(record, e));
+            }
         }
-        IntegratedToolEnrichedData enrichedData = getExtraParams(deserializedKafkaMessage, type);
-        type.getDestinationList().forEach(destination -> {
-            MessageHandler handler = handlers.get(type.getEventHandlerType()).get(destination);
-            if (handler == null) {
-                throw new IllegalArgumentException("No handler found for type: " + type);
+
+        handlerBatches.forEach((key, batch) -> {
+            if (key.handler().requiresPollingThread()) {
+                deferred.add(new DeferredBatch(key, batch, sources));
+            } else {
+                handle(key, batch, sources, failures);
             }
-            handler.handle(deserializedKafkaMessage, enrichedData);
         });
     }
 
+    @SuppressWarnings("unchecked")
+    private void handle(HandlerBatchKey key, List<EnrichedMessage> batch, Map<DeserializedDebeziumMessage, BatchRecord> sources,
+                        Map<BatchRecord, FailedRecord> failures) {
+        MessageHandler handler = key.handler();
+        List<HandlerFailure<DeserializedDebeziumMessage>> handlerFailures;
+        Timer.Sample sample = streamMetrics.start();
+        try {
+            handlerFailures = handler.handleBatch(batch);
+            streamMetrics.recordStage(sample, StreamMetrics.HANDLE, key.type(), handler.getDestination());
+        } catch (Exception e) {
+            log.error("Handler {} failed for a batch of {} messages", handler.getDestination(), batch.size(), e);
+            handlerFailures = batch.stream()
+                    .map(item -> new HandlerFailure<>((DeserializedDebeziumMessage) item.message(), e))
+                    .toList();
+        }
+        Set<DeserializedDebeziumMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (HandlerFailure<DeserializedDebeziumMessage> failure : handlerFailures) {
+            BatchRecord record = sources.get(failure.message());
+            log.error("Handler {} failed for record {}-{}@{}", handler.getDestination(),
+                    record.topic(), record.partition(), record.offset(), failure.error());
+            failures.putIfAbsent(record, new FailedRecord(record, failure.error()));
+            failed.add(failure.message());
+        }
+        for (EnrichedMessage item : batch) {
+            DeserializedDebeziumMessage message = (DeserializedDebeziumMessage) item.message();
+            if (!failed.contains(message)) {
+                streamMetrics.recordEndToEndLag(key.type(), handler.getDestination(), message.getEventTimestamp());
+            }
+        }
+    }
+
+    private MessageHandler getHandler(MessageType type, Destination destination) {
+        MessageHandler handler = handlers.getOrDefault(type.getEventHandlerType(), Map.of()).get(destination);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler found for type: " + type);
+        }
+        return handler;
+    }
+
     private DeserializedDebeziumMessage deserialize(CommonDebeziumMessage message, MessageType type) {
         KafkaMessageDeserializer deserializer = deserializers.get(type);
         if (deserializer == null) {
@@ -67,4 +276,17 @@ public class GenericJsonMessageProcessor {
         return dataEnrichmentService.getExtraParams(message);
     }
 
+    private record HandlerBatchKey(MessageHandler handler, MessageType type) {
+    }
+
+    private record DeferredBatch(HandlerBatchKey key, List<EnrichedMessage> messages, Map<DeserializedDebeziumMessage, BatchRecord> sources) {
+    }
+
+    private record PreparedMessage(BatchRecord record, DeserializedDebeziumMessage message, IntegratedToolEnrichedData enrichedData) {
+
+        private String orderingKey() {
+            return message.getAgentId() != null ? message.getAgentId() : message.getToolEventId();
+        }
+    }
+
 }
@@ -0,0 +1,94 @@
+package com.openframe.stream.processor;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs batch work on a fixed number of lanes backed by virtual threads.
+ * Items sharing a key always land on the same lane and are handled there in their original order,
+ * so events of one device stay ordered while different devices are processed concurrently.
+ * Both methods block until every lane is done, so the caller can commit the whole poll afterwards.
+ * Lane threads do not join transactions bound to the calling thread; work that must run in the
+ * poll's transaction stays on the calling thread.
+ */
+@Slf4j
+@Component
+public class KeyOrderedExecutor {
+
+    private final int lanes;
+    private final ExecutorService executor;
+
+    public KeyOrderedExecutor(@Value("${openframe.oss-tenant.kafka.consumer.batch.lanes:8}") int lanes) {
+        this.lanes = Math.max(1, lanes);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        log.info("Key ordered executor initialized with {} lanes", this.lanes);
+    }
+
+    /**
+     * Hand each lane its items in list order; items with equal keys share a lane.
+     */
+    public <T> void executeOrdered(List<T> items, Function<T, ?> keyExtractor, Consumer<List<T>> laneTask) {
+        List<List<T>> laneItems = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            laneItems.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            int lane = Math.floorMod(Objects.hashCode(keyExtractor.apply(item)), lanes);
+            laneItems.get(lane).add(item);
+        }
+        runAll(laneItems.stream().filter(lane -> !lane.isEmpty()).toList(), laneTask);
+    }
+
+    /**
+     * Split items into contiguous slices processed concurrently, for work that needs no ordering.
+     */
+    public <T> void executeUnordered(List<T> items, Consumer<List<T>> sliceTask) {
+        int sliceSize = Math.max(1, (items.size() + lanes - 1) / lanes);
+        List<List<T>> slices = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += sliceSize) {
+            slices.add(items.subList(from, Math.min(from + sliceSize, items.size())));
+        }
+        runAll(slices, sliceTask);
+    }
+
+    private <T> void runAll(List<List<T>> groups, Consumer<List<T>> task) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        if (groups.size() == 1) {
+            task.accept(groups.get(0));
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        for (List<T> group : groups) {
+            futures.add(executor.submit(() -> task.accept(group)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for lane tasks", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Lane task failed", e.getCause());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
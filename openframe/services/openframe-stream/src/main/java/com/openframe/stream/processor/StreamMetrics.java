@@ -0,0 +1,102 @@
+package com.openframe.stream.processor;
+
+import com.openframe.data.model.enums.Destination;
+import com.openframe.data.model.enums.MessageType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer meters of the CDC pipeline, tagged by message type and integrated tool:
+ * <ul>
+ *     <li>{@code stream.stage.duration} - deserialize, enrich and handle (per destination) time</li>
+ *     <li>{@code stream.messages} - messages by outcome (processed, skipped, failed)</li>
+ *     <li>{@code stream.end-to-end.lag} - from the source event timestamp until a handler finished</li>
+ * </ul>
+ * Meters are resolved once per tag combination and cached, so recording does not allocate tags.
+ */
+@Component
+public class StreamMetrics {
+
+    public static final String DESERIALIZE = "deserialize";
+    public static final String ENRICH = "enrich";
+    public static final String HANDLE = "handle";
+
+    public static final String PROCESSED = "processed";
+    public static final String SKIPPED = "skipped";
+    public static final String FAILED = "failed";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> messageCounters = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> lagTimers = new ConcurrentHashMap<>();
+
+    public StreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordStage(Timer.Sample sample, String stage, MessageType type, Destination destination) {
+        sample.stop(stageTimers.computeIfAbsent(new MeterKey(stage, type, destination), key ->
+                Timer.builder("stream.stage.duration")
+                        .description("Time spent in a stage of the CDC pipeline")
+                        .tags(tags(type, destination))
+                        .tag("stage", stage)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+
+    public void countMessages(String outcome, MessageType type, int count) {
+        if (count == 0) {
+            return;
+        }
+        messageCounters.computeIfAbsent(new MeterKey(outcome, type, null), key ->
+                Counter.builder("stream.messages")
+                        .description("CDC messages by processing outcome")
+                        .tags(tags(type, null))
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    /**
+     * @param eventTimestamp source event time in epoch millis, ignored when unknown
+     */
+    public void recordEndToEndLag(MessageType type, Destination destination, Long eventTimestamp) {
+        if (eventTimestamp == null) {
+            return;
+        }
+        long lagMillis = System.currentTimeMillis() - eventTimestamp;
+        if (lagMillis < 0) {
+            return;
+        }
+        lagTimers.computeIfAbsent(new MeterKey(HANDLE, type, destination), key ->
+                Timer.builder("stream.end-to-end.lag")
+                        .description("Time from the source event until the handler finished")
+                        .tags(tags(type, destination))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(Duration.ofMillis(lagMillis));
+    }
+
+    private static Tags tags(MessageType type, Destination destination) {
+        return Tags.of(
+                "message_type", type != null ? type.name() : NONE,
+                "tool_type", type != null && type.getIntegratedToolType() != null ? type.getIntegratedToolType().name() : NONE,
+                "destination", destination != null ? destination.name() : NONE);
+    }
+
+    private record MeterKey(String name, MessageType type, Destination destination) {
+    }
+}
@@ -5,44 +5,93 @@ import com.openframe.stream.model.fleet.Activity;
 import com.openframe.stream.model.fleet.ActivityMessage;
 import com.openframe.stream.model.fleet.HostActivity;
 import com.openframe.stream.model.fleet.HostActivityMessage;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
 import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
 import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
 import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
 import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.TimestampedKeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Bean;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.openframe.kafka.enumeration.KafkaHeader.MESSAGE_TYPE_HEADER;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ActivityEnrichmentService {
 
     private final Serde<ActivityMessage> activityMessageSerde;
     private final Serde<ActivityMessage> outgoingActivityMessageSerde;
     private final Serde<HostActivityMessage> hostActivityMessageSerde;
+    private final Serde<ActivityMessage> internalActivityMessageSerde;
+    private final Serde<HostActivityMessage> internalHostActivityMessageSerde;
 
-    @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-activities}")
-    private String activitiesTopic;
+    private final String activitiesTopic;
+    private final String hostActivitiesTopic;
+    private final String enrichedActivitiesTopic;
+    private final JoinMode joinMode;
+    private final Duration joinGrace;
+    private final Duration retryInterval;
 
-    @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-host-activities}")
-    private String hostActivitiesTopic;
+    private static final Duration JOIN_WINDOW_DURATION = Duration.ofSeconds(5);
 
-    @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-events}")
-    private String enrichedActivitiesTopic;
+    private static final String HOST_ACTIVITIES_STORE = "host-activities-by-activity-id";
 
-    private static final Duration JOIN_WINDOW_DURATION = Duration.ofSeconds(5);
+    private static final String PENDING_ACTIVITIES_STORE = "activities-pending-host-activity";
+
+    public ActivityEnrichmentService(Serde<ActivityMessage> activityMessageSerde,
+                                     Serde<ActivityMessage> outgoingActivityMessageSerde,
+                                     Serde<HostActivityMessage> hostActivityMessageSerde,
+                                     Serde<ActivityMessage> internalActivityMessageSerde,
+                                     Serde<HostActivityMessage> internalHostActivityMessageSerde,
+                                     @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-activities}") String activitiesTopic,
+                                     @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-host-activities}") String hostActivitiesTopic,
+                                     @Value("${openframe.oss-tenant.kafka.topics.inbound.fleet-mdm-events}") String enrichedActivitiesTopic,
+                                     @Value("${openframe.oss-tenant.kafka.streams.activity-enrichment.join-mode:window}") JoinMode joinMode,
+                                     @Value("${openframe.oss-tenant.kafka.streams.activity-enrichment.grace:30s}") Duration joinGrace,
+                                     @Value("${openframe.oss-tenant.kafka.streams.activity-enrichment.retry-interval:1s}") Duration retryInterval) {
+        this.activityMessageSerde = activityMessageSerde;
+        this.outgoingActivityMessageSerde = outgoingActivityMessageSerde;
+        this.hostActivityMessageSerde = hostActivityMessageSerde;
+        this.internalActivityMessageSerde = internalActivityMessageSerde;
+        this.internalHostActivityMessageSerde = internalHostActivityMessageSerde;
+        this.activitiesTopic = activitiesTopic;
+        this.hostActivitiesTopic = hostActivitiesTopic;
+        this.enrichedActivitiesTopic = enrichedActivitiesTopic;
+        this.joinMode = joinMode;
+        this.joinGrace = joinGrace;
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * WINDOW joins both streams within a 5 second window. TABLE materializes host activities as a
+     * table keyed by activity id, keeping the latest host activity per id, and looks every activity up in it;
+     * an activity without a host activity yet is held for up to the grace period and looked up again
+     * every retry interval.
+     */
+    public enum JoinMode {
+        WINDOW,
+        TABLE
+    }
 
     @Bean
     public KStream<String, ActivityMessage> buildActivityEnrichmentStream(StreamsBuilder builder) {
@@ -72,13 +121,9 @@ public class ActivityEnrichmentService {
                     return new KeyValue<>(hostActivity.getActivityId().toString(), value);
                 });
 
-        KStream<String, ActivityMessage> enrichedStream = activityStream
-                .leftJoin(
-                        hostActivityStream,
-                        this::enrichActivityWithHostInfo,
-                        JoinWindows.ofTimeDifferenceWithNoGrace(JOIN_WINDOW_DURATION),
-                        StreamJoined.with(Serdes.String(), activityMessageSerde, hostActivityMessageSerde)
-                );
+        KStream<String, ActivityMessage> enrichedStream = joinMode == JoinMode.TABLE
+                ? joinWithHostActivityTable(builder, activityStream, hostActivityStream)
+                : joinWithinWindow(activityStream, hostActivityStream);
 
         // Add constant header using modern Processor API and send to output topic
         KStream<String, ActivityMessage> withHeaderStream = enrichedStream.processValues(HeaderAdderFixedKey::new);
@@ -89,6 +134,50 @@ public class ActivityEnrichmentService {
         return withHeaderStream;
     }
 
+    private KStream<String, ActivityMessage> joinWithinWindow(KStream<String, ActivityMessage> activityStream,
+                                                              KStream<String, HostActivityMessage> hostActivityStream) {
+        return activityStream
+                .leftJoin(
+                        hostActivityStream,
+                        this::enrichActivityWithHostInfo,
+                        JoinWindows.ofTimeDifferenceWithNoGrace(JOIN_WINDOW_DURATION),
+                        StreamJoined.with(Serdes.String(), internalActivityMessageSerde, internalHostActivityMessageSerde)
+                );
+    }
+
+    /**
+     * Debezium usually produces the host activity after its activity, so a plain table lookup at arrival
+     * would mostly miss. Activities the lookup misses are parked in a store and checked against the table
+     * again by a wall-clock punctuator. The join keeps both inputs co-partitioned, so the processor behind it
+     * sees the table store of the same task.
+     */
+    private KStream<String, ActivityMessage> joinWithHostActivityTable(StreamsBuilder builder,
+                                                                       KStream<String, ActivityMessage> activityStream,
+                                                                       KStream<String, HostActivityMessage> hostActivityStream) {
+        log.info("Joining activities with host activity table, grace {}, retry interval {}", joinGrace, retryInterval);
+        KTable<String, HostActivityMessage> hostActivityTable = hostActivityStream.toTable(
+                Named.as("host-activities-table"),
+                Materialized.<String, HostActivityMessage, KeyValueStore<Bytes, byte[]>>as(HOST_ACTIVITIES_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(internalHostActivityMessageSerde));
+        builder.addStateStore(Stores.timestampedKeyValueStoreBuilder(
+                Stores.persistentTimestampedKeyValueStore(PENDING_ACTIVITIES_STORE),
+                Serdes.String(), internalActivityMessageSerde));
+
+        return activityStream
+                .leftJoin(
+                        hostActivityTable,
+                        this::enrichActivityWithHostInfo,
+                        Joined.with(Serdes.String(), internalActivityMessageSerde, internalHostActivityMessageSerde))
+                .process(PendingHostActivityProcessor::new, Named.as("activities-pending-host-activity"),
+                        HOST_ACTIVITIES_STORE, PENDING_ACTIVITIES_STORE);
+    }
+
+    private static boolean awaitsHostActivity(ActivityMessage activity) {
+        return activity != null && activity.getPayload() != null && activity.getPayload().getAfter() != null
+                && activity.getPayload().getAfter().getHostId() == null;
+    }
+
     private ActivityMessage enrichActivityWithHostInfo(ActivityMessage activity, HostActivityMessage hostActivity) {
         if (activity == null || activity.getPayload() == null || activity.getPayload().getAfter() == null) {
             log.warn("Activity or its data is null, skipping enrichment");
@@ -113,6 +202,54 @@ public class ActivityEnrichmentService {
         return activity;
     }
 
+    /**
+     * Forwards enriched activities right away and parks the others, keyed by activity id, with the wall-clock
+     * time they arrived. A newer version of a parked activity replaces it but keeps the original arrival time.
+     */
+    private final class PendingHostActivityProcessor implements Processor<String, ActivityMessage, String, ActivityMessage> {
+
+        private ProcessorContext<String, ActivityMessage> context;
+        private TimestampedKeyValueStore<String, HostActivityMessage> hostActivities;
+        private TimestampedKeyValueStore<String, ActivityMessage> pending;
+
+        @Override
+        public void init(ProcessorContext<String, ActivityMessage> context) {
+            this.context = context;
+            this.hostActivities = context.getStateStore(HOST_ACTIVITIES_STORE);
+            this.pending = context.getStateStore(PENDING_ACTIVITIES_STORE);
+            context.schedule(retryInterval, PunctuationType.WALL_CLOCK_TIME, this::retryPending);
+        }
+
+        @Override
+        public void process(Record<String, ActivityMessage> record) {
+            if (record.key() == null || !awaitsHostActivity(record.value())) {
+                context.forward(record);
+                return;
+            }
+            ValueAndTimestamp<ActivityMessage> parked = pending.get(record.key());
+            long arrivedAt = parked != null ? parked.timestamp() : context.currentSystemTimeMs();
+            pending.put(record.key(), ValueAndTimestamp.make(record.value(), arrivedAt));
+        }
+
+        private void retryPending(long now) {
+            List<KeyValue<String, ValueAndTimestamp<ActivityMessage>>> done = new ArrayList<>();
+            try (KeyValueIterator<String, ValueAndTimestamp<ActivityMessage>> parked = pending.all()) {
+                while (parked.hasNext()) {
+                    KeyValue<String, ValueAndTimestamp<ActivityMessage>> entry = parked.next();
+                    HostActivityMessage hostActivity = ValueAndTimestamp.getValueOrNull(hostActivities.get(entry.key));
+                    if (hostActivity != null || now - entry.value.timestamp() >= joinGrace.toMillis()) {
+                        ActivityMessage activity = enrichActivityWithHostInfo(entry.value.value(), hostActivity);
+                        done.add(KeyValue.pair(entry.key, ValueAndTimestamp.make(activity, entry.value.timestamp())));
+                    }
+                }
+            }
+            for (KeyValue<String, ValueAndTimestamp<ActivityMessage>> entry : done) {
+                pending.delete(entry.key);
+                context.forward(new Record<>(entry.key, entry.value.value(), entry.value.timestamp()));
+            }
+        }
+    }
+
     private static final class HeaderAdderFixedKey implements FixedKeyProcessor<String, ActivityMessage, ActivityMessage> {
 
         private FixedKeyProcessorContext<String, ActivityMessage> context;
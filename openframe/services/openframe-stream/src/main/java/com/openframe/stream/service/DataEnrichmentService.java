@@ -3,10 +3,20 @@ package com.openframe.stream.service;
 import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.DataEnrichmentServiceType;
 
+import java.util.List;
+
 public interface DataEnrichmentService <T> {
 
     IntegratedToolEnrichedData getExtraParams(T message);
 
+    /**
+     * Enrich a batch of messages. The result is aligned with the input by index.
+     * Defaults to enriching the messages one by one.
+     */
+    default List<IntegratedToolEnrichedData> getExtraParamsBatch(List<T> messages) {
+        return messages.stream().map(this::getExtraParams).toList();
+    }
+
     DataEnrichmentServiceType getType();
 
 }
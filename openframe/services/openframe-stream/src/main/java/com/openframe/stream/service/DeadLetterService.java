@@ -0,0 +1,156 @@
+package com.openframe.stream.service;
+
+import com.openframe.stream.config.KafkaRetryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Publishes failed batch records to the dead letter topic of their source topic and replays dead letters
+ * back to the topic they came from. Replay works on raw bytes, so it never depends on the payload being
+ * readable, and drops the dead letter and retry headers so a replayed record starts its retries afresh.
+ * In exactly-once mode dead letters are sent in the transaction of the poll they came from,
+ * so an aborted poll does not leave them behind to be published again on redelivery.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = KafkaRetryConfig.RETRY_ENABLED, havingValue = "true")
+public class DeadLetterService {
+
+    private static final String DLT_HEADER_PREFIX = KafkaHeaders.PREFIX + "dlt-";
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final DeadLetterPublishingRecoverer recoverer;
+    private final String bootstrapServers;
+    private final String replayGroupId;
+
+    public DeadLetterService(KafkaTemplate<?, ?> kafkaTemplate,
+                             ObjectProvider<TransactionalEventPublisher> transactionalPublisher,
+                             @Value("${spring.oss-tenant.kafka.bootstrap-servers}") String bootstrapServers,
+                             @Value("${spring.oss-tenant.kafka.consumer.group-id}") String groupId) {
+        TransactionalEventPublisher publisher = transactionalPublisher.getIfAvailable();
+        KafkaOperations<?, ?> deadLetterTemplate = publisher != null ? publisher.getKafkaTemplate() : kafkaTemplate;
+        this.recoverer = new DeadLetterPublishingRecoverer(deadLetterTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + KafkaRetryConfig.DLT_SUFFIX, -1));
+        this.bootstrapServers = bootstrapServers;
+        this.replayGroupId = groupId + "-dlt-replay";
+    }
+
+    public void publish(ConsumerRecord<?, ?> record, Exception error) {
+        log.warn("Moving record {}-{}@{} to dead letter topic", record.topic(), record.partition(), record.offset());
+        recoverer.accept(record, error);
+    }
+
+    /**
+     * Move up to {@code maxRecords} records from the dead letter topic back to their original topic.
+     * Progress is committed under a dedicated consumer group, so a replay continues where the last one stopped.
+     */
+    public ReplayResult replay(String deadLetterTopic, int maxRecords) {
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(replayConsumerProperties(maxRecords));
+             KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(replayProducerProperties())) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+
+            int replayed = 0;
+            List<Future<RecordMetadata>> sends = new ArrayList<>();
+            while (replayed < maxRecords) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                Map<TopicPartition, Long> notReplayed = new HashMap<>();
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (replayed == maxRecords) {
+                        notReplayed.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+                        continue;
+                    }
+                    sends.add(producer.send(toOriginal(deadLetterTopic, record)));
+                    replayed++;
+                }
+                // Rewind past the limit so the commit below only covers replayed records
+                notReplayed.forEach(consumer::seek);
+            }
+            for (Future<RecordMetadata> send : sends) {
+                send.get();
+            }
+            consumer.commitSync();
+            log.info("Replayed {} records from {}", replayed, deadLetterTopic);
+            return new ReplayResult(deadLetterTopic, replayed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying " + deadLetterTopic, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to replay " + deadLetterTopic, e.getCause());
+        }
+    }
+
+    private ProducerRecord<byte[], byte[]> toOriginal(String deadLetterTopic, ConsumerRecord<byte[], byte[]> record) {
+        Header originalTopicHeader = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        String originalTopic = originalTopicHeader != null
+                ? new String(originalTopicHeader.value(), StandardCharsets.UTF_8)
+                : deadLetterTopic.substring(0, deadLetterTopic.length() - KafkaRetryConfig.DLT_SUFFIX.length());
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX) && !header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(originalTopic, null, record.key(), record.value(), headers);
+    }
+
+    private Map<String, Object> replayConsumerProperties(int maxRecords) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxRecords, 500));
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return props;
+    }
+
+    private Map<String, Object> replayProducerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return props;
+    }
+
+    public record ReplayResult(String deadLetterTopic, int replayed) {
+    }
+}
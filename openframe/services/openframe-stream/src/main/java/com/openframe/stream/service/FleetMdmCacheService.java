@@ -1,53 +1,110 @@
 package com.openframe.stream.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.openframe.data.document.tool.IntegratedTool;
 import com.openframe.data.document.tool.IntegratedToolId;
 import com.openframe.data.service.IntegratedToolService;
 import com.openframe.sdk.fleetmdm.FleetMdmClient;
 import com.openframe.sdk.fleetmdm.model.Host;
 import com.openframe.sdk.fleetmdm.model.Query;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Service for Fleet MDM cache operations using Spring Cache abstraction
+ * Service for Fleet MDM cache operations
  * Used in Fleet activities stream processing for enriching activities with:
  * - Agent information (host-to-agent mapping)
  * - Query definitions (query metadata by ID)
- * 
- * Uses Fleet MDM SDK directly instead of database access
+ *
+ * Uses Fleet MDM SDK directly instead of database access. Concurrent misses for the same key
+ * share one API call, and cached entries are reloaded in the background after the refresh interval
+ * so the Kafka listener thread only blocks on the first lookup of a key.
+ * Hosts and queries Fleet does not know are cached for the shorter not-found TTL. Nothing is cached
+ * while the Fleet tool is not registered yet.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FleetMdmCacheService {
 
     @Value("${fleet.mdm.base-url}")
     private String baseUrl;
 
-    private FleetMdmClient fleetMdmClient;
+    private volatile FleetMdmClient fleetMdmClient;
 
     private final IntegratedToolService integratedToolService;
 
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LoadingCache<Integer, Optional<String>> hostAgents;
+
+    private final LoadingCache<Long, Optional<Query>> queries;
+
+    public FleetMdmCacheService(IntegratedToolService integratedToolService,
+                                MeterRegistry meterRegistry,
+                                @Value("${openframe.oss-tenant.fleet-mdm.cache.refresh-interval:5m}") Duration refreshInterval,
+                                @Value("${openframe.oss-tenant.fleet-mdm.cache.ttl:1h}") Duration ttl,
+                                @Value("${openframe.oss-tenant.fleet-mdm.cache.not-found-ttl:1m}") Duration notFoundTtl) {
+        this.integratedToolService = integratedToolService;
+        this.hostAgents = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshInterval)
+                .expireAfter(new FoundNotFoundExpiry<Integer, String>(ttl, notFoundTtl))
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::loadAgentId);
+        this.queries = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshInterval)
+                .expireAfter(new FoundNotFoundExpiry<Long, Query>(ttl, notFoundTtl))
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::loadQuery);
+        CaffeineCacheMetrics.monitor(meterRegistry, hostAgents, "fleet.mdm.host-agents");
+        CaffeineCacheMetrics.monitor(meterRegistry, queries, "fleet.mdm.queries");
+    }
+
+    /**
+     * Resolve the Fleet client once the application is up, so the first event does not pay for the tool lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            if (getFleetMdmClient() == null) {
+                log.warn("Fleet MDM tool is not registered yet, client will be created on first lookup");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to initialize FleetMdmClient on startup", e);
+        }
+    }
+
     /**
      * Get agent ID from cache or Fleet MDM API
      *
      * @param hostId the host ID
      * @return the agent ID, or null if not found
      */
-    @Cacheable(value = "hostAgentCache", key = "#hostId", unless = "#result == null")
     public String getAgentId(Integer hostId) {
-        log.debug("Fetching agent ID for host: {}", hostId);
+        if (hostId == null) {
+            return null;
+        }
         try {
-            Host host = getFleetMdmClient() != null ? this.fleetMdmClient.getHostById(hostId.longValue()) : null;
-            return host != null ? host.getUuid() : null;
-        } catch (IOException | InterruptedException e) {
+            return hostAgents.get(hostId).orElse(null);
+        } catch (FleetToolNotRegisteredException e) {
+            log.debug("Fleet MDM tool is not registered, cannot resolve agent ID for host {}", hostId);
+            return null;
+        } catch (Exception e) {
             log.error("Error fetching agent ID for host: {}", hostId, e);
             return null;
         }
@@ -59,28 +116,87 @@ public class FleetMdmCacheService {
      * @param queryId the query ID
      * @return the Query object, or null if not found
      */
-    @Cacheable(value = "fleetQueryCache", key = "#queryId", unless = "#result == null")
     public Query getQueryById(Long queryId) {
-        log.debug("Fetching query definition for query ID: {}", queryId);
+        if (queryId == null) {
+            return null;
+        }
         try {
-            FleetMdmClient client = getFleetMdmClient();
-            return client != null ? client.getQueryById(queryId) : null;
-        } catch (IOException | InterruptedException e) {
+            return queries.get(queryId).orElse(null);
+        } catch (FleetToolNotRegisteredException e) {
+            log.debug("Fleet MDM tool is not registered, cannot resolve query definition for query ID {}", queryId);
+            return null;
+        } catch (Exception e) {
             log.error("Error fetching query definition for query ID: {}", queryId, e);
             return null;
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Loader failures propagate so the error is not cached; a failed background refresh keeps the previous value.
+     */
+    private Optional<String> loadAgentId(Integer hostId) throws IOException, InterruptedException {
+        log.debug("Fetching agent ID for host: {}", hostId);
+        Host host = requireFleetMdmClient().getHostById(hostId.longValue());
+        return Optional.ofNullable(host).map(Host::getUuid);
+    }
+
+    private Optional<Query> loadQuery(Long queryId) throws IOException, InterruptedException {
+        log.debug("Fetching query definition for query ID: {}", queryId);
+        return Optional.ofNullable(requireFleetMdmClient().getQueryById(queryId));
+    }
+
+    private FleetMdmClient requireFleetMdmClient() {
+        FleetMdmClient client = getFleetMdmClient();
+        if (client == null) {
+            throw new FleetToolNotRegisteredException();
+        }
+        return client;
+    }
+
     private FleetMdmClient getFleetMdmClient() {
-        if (fleetMdmClient == null) {
-            Optional<IntegratedTool> optionalFleetInfo = integratedToolService.getToolById(IntegratedToolId.FLEET_SERVER_ID.getValue());
-            log.info("FleetMdmClient is null, attempting to initialize with tool: {}", 
-                optionalFleetInfo.map(IntegratedTool::getCredentials).orElse(null));
-            optionalFleetInfo.ifPresent(integratedTool -> {
-                this.fleetMdmClient = new FleetMdmClient(baseUrl, integratedTool.getCredentials().getApiKey().getKey());
-            });
+        FleetMdmClient client = fleetMdmClient;
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            if (fleetMdmClient == null) {
+                Optional<IntegratedTool> optionalFleetInfo = integratedToolService.getToolById(IntegratedToolId.FLEET_SERVER_ID.getValue());
+                log.info("FleetMdmClient is null, attempting to initialize with tool: {}",
+                    optionalFleetInfo.map(IntegratedTool::getCredentials).orElse(null));
+                optionalFleetInfo.ifPresent(integratedTool ->
+                        this.fleetMdmClient = new FleetMdmClient(baseUrl, integratedTool.getCredentials().getApiKey().getKey()));
+            }
+            return fleetMdmClient;
         }
-        return fleetMdmClient;
     }
-}
 
+    private static class FleetToolNotRegisteredException extends IllegalStateException {
+
+        FleetToolNotRegisteredException() {
+            super("Fleet MDM tool is not registered");
+        }
+    }
+
+    private record FoundNotFoundExpiry<K, V>(Duration ttl, Duration notFoundTtl) implements Expiry<K, Optional<V>> {
+
+        @Override
+        public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+            return (value.isPresent() ? ttl : notFoundTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,43 +5,89 @@ import com.openframe.data.model.redis.CachedOrganizationInfo;
 import com.openframe.stream.model.fleet.debezium.DeserializedDebeziumMessage;
 import com.openframe.stream.model.fleet.debezium.IntegratedToolEnrichedData;
 import com.openframe.data.model.enums.DataEnrichmentServiceType;
-import com.openframe.data.repository.redis.MachineIdCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 @Slf4j
 public class IntegratedToolDataEnrichmentService implements DataEnrichmentService<DeserializedDebeziumMessage> {
 
-    private final MachineIdCacheService machineIdCacheService;
+    private final MachineInfoNearCache machineInfoNearCache;
 
-    public IntegratedToolDataEnrichmentService(MachineIdCacheService machineIdCacheService) {
-        this.machineIdCacheService = machineIdCacheService;
+    public IntegratedToolDataEnrichmentService(MachineInfoNearCache machineInfoNearCache) {
+        this.machineInfoNearCache = machineInfoNearCache;
     }
 
     @Override
     public IntegratedToolEnrichedData getExtraParams(DeserializedDebeziumMessage message) {
-        IntegratedToolEnrichedData integratedToolEnrichedData = new IntegratedToolEnrichedData();
         if (message == null || message.getAgentId() == null) {
-            return integratedToolEnrichedData;
+            return new IntegratedToolEnrichedData();
         }
 
         String agentId = message.getAgentId();
-        CachedMachineInfo machine = machineIdCacheService.getMachine(agentId);
-        if (machine != null) {
-            CachedOrganizationInfo organization = machineIdCacheService.getOrganization(machine.getOrganizationId());
-            log.debug("Found machine ID {} for agent {} (organization {})", machine.getMachineId(), agentId, machine.getOrganizationId());
-            integratedToolEnrichedData.setMachineId(machine.getMachineId());
-            integratedToolEnrichedData.setHostname(machine.getHostname());
-            if (organization != null) {
-                integratedToolEnrichedData.setOrganizationId(organization.getOrganizationId());
-                integratedToolEnrichedData.setOrganizationName(organization.getName());
-            }
-            return integratedToolEnrichedData;
-        } else {
+        CachedMachineInfo machine = machineInfoNearCache.getMachine(agentId);
+        CachedOrganizationInfo organization = machine != null
+                ? machineInfoNearCache.getOrganization(machine.getOrganizationId())
+                : null;
+        return toEnrichedData(agentId, machine, organization);
+    }
+
+    /**
+     * Resolve the distinct agents of the batch, then their distinct organizations, with one near-cache pass
+     * each instead of two lookups per message. Near-cache misses are loaded concurrently but key by key.
+     */
+    @Override
+    public List<IntegratedToolEnrichedData> getExtraParamsBatch(List<DeserializedDebeziumMessage> messages) {
+        Set<String> agentIds = messages.stream()
+                .filter(Objects::nonNull)
+                .map(DeserializedDebeziumMessage::getAgentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, CachedMachineInfo> machines = agentIds.isEmpty() ? Map.of() : machineInfoNearCache.getMachines(agentIds);
+
+        Set<String> organizationIds = machines.values().stream()
+                .map(CachedMachineInfo::getOrganizationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, CachedOrganizationInfo> organizations = organizationIds.isEmpty()
+                ? Map.of()
+                : machineInfoNearCache.getOrganizations(organizationIds);
+
+        return messages.stream()
+                .map(message -> {
+                    if (message == null || message.getAgentId() == null) {
+                        return new IntegratedToolEnrichedData();
+                    }
+                    CachedMachineInfo machine = machines.get(message.getAgentId());
+                    CachedOrganizationInfo organization = machine != null && machine.getOrganizationId() != null
+                            ? organizations.get(machine.getOrganizationId())
+                            : null;
+                    return toEnrichedData(message.getAgentId(), machine, organization);
+                })
+                .toList();
+    }
+
+    private IntegratedToolEnrichedData toEnrichedData(String agentId, CachedMachineInfo machine, CachedOrganizationInfo organization) {
+        IntegratedToolEnrichedData integratedToolEnrichedData = new IntegratedToolEnrichedData();
+        if (machine == null) {
             log.warn("Machine ID not found for agent: {}", agentId);
             return integratedToolEnrichedData;
         }
+        log.debug("Found machine ID {} for agent {} (organization {})", machine.getMachineId(), agentId, machine.getOrganizationId());
+        integratedToolEnrichedData.setMachineId(machine.getMachineId());
+        integratedToolEnrichedData.setHostname(machine.getHostname());
+        if (organization != null) {
+            integratedToolEnrichedData.setOrganizationId(organization.getOrganizationId());
+            integratedToolEnrichedData.setOrganizationName(organization.getName());
+        }
+        return integratedToolEnrichedData;
     }
 
     @Override
@@ -0,0 +1,220 @@
+package com.openframe.stream.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.openframe.data.model.redis.CachedMachineInfo;
+import com.openframe.data.model.redis.CachedOrganizationInfo;
+import com.openframe.data.repository.redis.MachineIdCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache in front of the Redis backed MachineIdCacheService.
+ * Unknown agents and organizations are cached as well, with a shorter TTL, so a stream of events
+ * from an unregistered agent does not hit Redis on every message. Unknown agents are kept apart from
+ * resolved machines, so a device change can drop them without touching the resolved entries.
+ * Machine entries are invalidated by machine id when the devices topic reports a change
+ * (see DeviceEventCacheInvalidationListener).
+ */
+@Service
+@Slf4j
+public class MachineInfoNearCache {
+
+    private final MachineIdCacheService machineIdCacheService;
+    private final Cache<String, CachedMachineInfo> machines;
+    private final Cache<String, Boolean> unknownAgents;
+    private final Cache<String, Optional<CachedOrganizationInfo>> organizations;
+    private final ConcurrentHashMap<String, Set<String>> agentIdsByMachineId = new ConcurrentHashMap<>();
+    private final ExecutorService bulkLoadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore loadPermits;
+
+    public MachineInfoNearCache(MachineIdCacheService machineIdCacheService,
+                                MeterRegistry meterRegistry,
+                                @Value("${openframe.oss-tenant.enrichment.near-cache.max-size:100000}") long maxSize,
+                                @Value("${openframe.oss-tenant.enrichment.near-cache.ttl:5m}") Duration ttl,
+                                @Value("${openframe.oss-tenant.enrichment.near-cache.negative-ttl:30s}") Duration negativeTtl,
+                                @Value("${openframe.oss-tenant.enrichment.near-cache.max-concurrent-loads:16}") int maxConcurrentLoads) {
+        this.machineIdCacheService = machineIdCacheService;
+        this.loadPermits = new Semaphore(Math.max(1, maxConcurrentLoads));
+        this.machines = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .removalListener(this::onMachineRemoved)
+                .recordStats()
+                .build();
+        this.unknownAgents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.organizations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PositiveNegativeExpiry<CachedOrganizationInfo>(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, machines, "enrichment.machines");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownAgents, "enrichment.unknown-agents");
+        CaffeineCacheMetrics.monitor(meterRegistry, organizations, "enrichment.organizations");
+    }
+
+    public CachedMachineInfo getMachine(String agentId) {
+        if (unknownAgents.getIfPresent(agentId) != null) {
+            return null;
+        }
+        return machines.get(agentId, this::loadMachine);
+    }
+
+    public CachedOrganizationInfo getOrganization(String organizationId) {
+        return organizations.get(organizationId, id -> Optional.ofNullable(machineIdCacheService.getOrganization(id)))
+                .orElse(null);
+    }
+
+    /**
+     * Resolve all agents with one pass over the cache. Misses are still single-key lookups through
+     * MachineIdCacheService, which has no bulk read; they run concurrently with at most
+     * {@code max-concurrent-loads} in flight per instance, so a cold cache costs about
+     * misses / max-concurrent-loads round trips rather than one MGET.
+     * Agents without a machine are absent from the result.
+     */
+    public Map<String, CachedMachineInfo> getMachines(Set<String> agentIds) {
+        Set<String> candidates = new HashSet<>(agentIds);
+        candidates.removeAll(unknownAgents.getAllPresent(agentIds).keySet());
+        return machines.getAll(candidates, missing -> loadAll(missing, this::loadMachine));
+    }
+
+    public Map<String, CachedOrganizationInfo> getOrganizations(Set<String> organizationIds) {
+        return present(organizations.getAll(organizationIds,
+                missing -> loadAll(missing, id -> Optional.ofNullable(machineIdCacheService.getOrganization(id)))));
+    }
+
+    /**
+     * Drop every agent mapped to the machine. A change for a machine that is not cached may be a new
+     * registration whose agents are cached as unknown; which agents those are is not known from the machine id,
+     * so the unknown agents are dropped and get resolved again. Resolved machines are not touched.
+     */
+    public void invalidateMachine(String machineId) {
+        Set<String> agentIds = agentIdsByMachineId.remove(machineId);
+        if (agentIds != null) {
+            machines.invalidateAll(agentIds);
+            log.debug("Invalidated {} cached agents of machine {}", agentIds.size(), machineId);
+        } else if (unknownAgents.estimatedSize() > 0) {
+            unknownAgents.invalidateAll();
+        }
+    }
+
+    /**
+     * Drop every cached machine, used when device changes may have been missed.
+     */
+    public void invalidateAll() {
+        machines.invalidateAll();
+        unknownAgents.invalidateAll();
+        agentIdsByMachineId.clear();
+    }
+
+    /**
+     * @return the machine, or null after recording the agent as unknown; Caffeine does not cache null
+     */
+    private CachedMachineInfo loadMachine(String agentId) {
+        CachedMachineInfo machine = machineIdCacheService.getMachine(agentId);
+        if (machine == null) {
+            unknownAgents.put(agentId, Boolean.TRUE);
+            return null;
+        }
+        if (machine.getMachineId() != null) {
+            agentIdsByMachineId.computeIfAbsent(machine.getMachineId(), id -> ConcurrentHashMap.newKeySet()).add(agentId);
+        }
+        return machine;
+    }
+
+    /**
+     * Keys the loader returns null for are left out of the result.
+     */
+    private <V> Map<String, V> loadAll(Set<? extends String> keys, Function<String, V> loader) {
+        Map<String, V> loaded = new HashMap<>();
+        if (keys.size() == 1) {
+            String key = keys.iterator().next();
+            V value = loader.apply(key);
+            if (value != null) {
+                loaded.put(key, value);
+            }
+            return loaded;
+        }
+        Map<String, CompletableFuture<V>> futures = new HashMap<>();
+        keys.forEach(key -> futures.put(key, CompletableFuture.supplyAsync(() -> loadWithPermit(key, loader), bulkLoadExecutor)));
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        futures.forEach((key, future) -> {
+            V value = future.join();
+            if (value != null) {
+                loaded.put(key, value);
+            }
+        });
+        return loaded;
+    }
+
+    private <V> V loadWithPermit(String key, Function<String, V> loader) {
+        loadPermits.acquireUninterruptibly();
+        try {
+            return loader.apply(key);
+        } finally {
+            loadPermits.release();
+        }
+    }
+
+    private static <T> Map<String, T> present(Map<String, Optional<T>> values) {
+        Map<String, T> result = new HashMap<>();
+        values.forEach((key, value) -> value.ifPresent(it -> result.put(key, it)));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkLoadExecutor.shutdownNow();
+    }
+
+    private void onMachineRemoved(String agentId, CachedMachineInfo machine, RemovalCause cause) {
+        if (agentId == null || machine == null || machine.getMachineId() == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        agentIdsByMachineId.computeIfPresent(machine.getMachineId(), (machineId, agentIds) -> {
+            agentIds.remove(agentId);
+            return agentIds.isEmpty() ? null : agentIds;
+        });
+    }
+
+    private record PositiveNegativeExpiry<T>(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<T>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<T> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<T> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<T> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -10,72 +10,120 @@ import com.openframe.sdk.tacticalrmm.model.AgentListItem;
 import com.openframe.sdk.tacticalrmm.model.ScriptListItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.openframe.data.document.tool.IntegratedToolId.TACTICAL_SERVER_ID;
 
 /**
- * Service for Tactical RMM cache operations using Spring Cache abstraction
+ * Service for Tactical RMM cache operations.
+ * Agents are resolved from an in-memory primary key index reloaded on a schedule and on unknown keys;
+ * script names use the Spring Cache abstraction.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TacticalRmmCacheService {
 
-    private TacticalRmmClient tacticalRmmClient;
+    private volatile TacticalRmmConnection tacticalRmmConnection;
 
     private final IntegratedToolService integratedToolService;
 
     private final ToolUrlService toolUrlService;
 
-    private String baseUrl;
+    @Value("${openframe.oss-tenant.tactical-rmm.agents.miss-refresh-interval:PT30S}")
+    private Duration missRefreshInterval = Duration.ofSeconds(30);
 
-    private String tacticalApiKey;
+    private volatile AgentIndex agentIndex = AgentIndex.EMPTY;
+
+    private volatile long lastRefreshAttemptNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    private final AtomicReference<CompletableFuture<AgentIndex>> inFlightRefresh = new AtomicReference<>();
 
     /**
-     * Get agent ID from cache or Tactical RMM API by primary key
-     * 
+     * Get agent ID by primary key from the in-memory agent index. An unknown primary key triggers
+     * an index refresh, unless the index was refreshed less than {@code missRefreshInterval} ago.
+     * Concurrent misses share one refresh, so a burst of new agents costs a single API call.
+     *
      * @param primaryKey the primary key (pk) from agents_agent table
      * @return the agent_id, or null if not found
      */
-    @Cacheable(value = "agentIdCache", key = "#primaryKey", unless = "#result == null")
     public String getAgentIdByPrimaryKey(Integer primaryKey) {
-        log.debug("Fetching agent ID for primary key: {}", primaryKey);
+        if (primaryKey == null) {
+            return null;
+        }
         try {
-            // First attempt with cached data
-            List<AgentListItem> agents = getAllAgentsFromCache();
-            if (agents == null) {
+            String agentId = agentIndex.get(primaryKey);
+            if (agentId != null) {
+                return agentId;
+            }
+            if (System.nanoTime() - lastRefreshAttemptNanos < missRefreshInterval.toNanos()) {
+                log.debug("Agent not found for PK: {}, index refreshed recently", primaryKey);
                 return null;
             }
-            
-            String agentId = findAgentIdByPrimaryKey(agents, primaryKey);
-            
-            // If not found, try refreshing cache and search again
-            if (agentId == null) {
-                log.debug("Agent not found in cache for PK: {}, refreshing cache", primaryKey);
-                evictAllAgentsCache();
-                agents = getAllAgentsFromCache();
-                if (agents != null) {
-                    agentId = findAgentIdByPrimaryKey(agents, primaryKey);
-                    if (agentId != null) {
-                        log.info("Agent found after cache refresh: PK={}, agent_id={}", primaryKey, agentId);
-                    }
-                }
+
+            log.debug("Agent not found for PK: {}, refreshing agent index", primaryKey);
+            agentId = refreshAgentIndex().get(primaryKey);
+            if (agentId != null) {
+                log.info("Agent found after index refresh: PK={}, agent_id={}", primaryKey, agentId);
             }
-            
             return agentId;
-                    
+
         } catch (Exception e) {
             log.error("Error fetching agent ID for primary key: {}", primaryKey, e);
             return null;
         }
     }
 
+    /**
+     * Periodically reload the agent list so new agents are usually indexed before their first event.
+     */
+    @Scheduled(initialDelayString = "${openframe.oss-tenant.tactical-rmm.agents.refresh-interval:PT5M}",
+            fixedDelayString = "${openframe.oss-tenant.tactical-rmm.agents.refresh-interval:PT5M}")
+    public void scheduledAgentIndexRefresh() {
+        refreshAgentIndex();
+    }
+
+    /**
+     * Reload the agent list and swap the index. If a refresh is already running the caller waits for
+     * its result instead of starting another one.
+     */
+    AgentIndex refreshAgentIndex() {
+        CompletableFuture<AgentIndex> refresh = new CompletableFuture<>();
+        CompletableFuture<AgentIndex> inFlight = inFlightRefresh.compareAndExchange(null, refresh);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            lastRefreshAttemptNanos = System.nanoTime();
+            List<AgentListItem> agents = getAllAgents();
+            if (agents != null) {
+                AgentIndex refreshed = AgentIndex.of(agents);
+                if (!refreshed.equals(agentIndex)) {
+                    log.info("Tactical RMM agent index refreshed: {} -> {} agents", agentIndex.size(), refreshed.size());
+                    agentIndex = refreshed;
+                }
+            }
+            refresh.complete(agentIndex);
+            return agentIndex;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRefresh.set(null);
+        }
+    }
+
     /**
      * Get script name from cache or Tactical RMM API by script ID
      * 
@@ -86,13 +134,13 @@ public class TacticalRmmCacheService {
     public String getScriptNameById(Integer scriptId) {
         log.debug("Fetching script name for script ID: {}", scriptId);
         try {
-            TacticalRmmClient client = getTacticalRmmClient();
-            if (client == null || tacticalApiKey == null) {
+            TacticalRmmConnection connection = getTacticalRmmConnection();
+            if (connection == null) {
                 log.warn("TacticalRmmClient is not available");
                 return null;
             }
              
-            ScriptListItem script = client.getScript(baseUrl, tacticalApiKey, scriptId.toString());
+            ScriptListItem script = connection.client().getScript(connection.baseUrl(), connection.apiKey(), scriptId.toString());
             return script != null ? script.getName() : null;
                     
         } catch (Exception e) {
@@ -102,21 +150,20 @@ public class TacticalRmmCacheService {
     }
 
     /**
-     * Get all agents from cache or Tactical RMM API
+     * Get all agents from Tactical RMM API
      * 
      * @return List of all agents, or null if not available
      */
-    @Cacheable(value = "allAgentsCache", unless = "#result == null or #result.isEmpty()")
-    public List<AgentListItem> getAllAgentsFromCache() {
+    private List<AgentListItem> getAllAgents() {
         log.debug("Fetching all agents from Tactical RMM");
         try {
-            TacticalRmmClient client = getTacticalRmmClient();
-            if (client == null || tacticalApiKey == null) {
+            TacticalRmmConnection connection = getTacticalRmmConnection();
+            if (connection == null) {
                 log.warn("TacticalRmmClient is not available");
                 return null;
             }
              
-            return client.getAllAgents(baseUrl, tacticalApiKey);
+            return connection.client().getAllAgents(connection.baseUrl(), connection.apiKey());
                     
         } catch (Exception e) {
             log.error("Error fetching all agents", e);
@@ -125,42 +172,77 @@ public class TacticalRmmCacheService {
     }
 
     /**
-     * Evict all agents cache to force refresh on next request
+     * The client is resolved lazily from both the scheduled refresh and the stream threads, so client, URL and
+     * API key are published together through one volatile reference.
      */
-    @CacheEvict(value = "allAgentsCache", allEntries = true)
-    public void evictAllAgentsCache() {
-        log.debug("Evicting all agents cache");
+    private TacticalRmmConnection getTacticalRmmConnection() {
+        TacticalRmmConnection connection = tacticalRmmConnection;
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (this) {
+            if (tacticalRmmConnection == null) {
+                Optional<IntegratedTool> optionalTool = integratedToolService.getToolById(TACTICAL_SERVER_ID.getValue());
+                log.info("TacticalRmmClient is null, tool info: {}", optionalTool.map(IntegratedTool::getCredentials).orElse(null));
+
+                if (optionalTool.isPresent()) {
+                    ToolUrl toolUrl = toolUrlService.getUrlByToolType(optionalTool.get(), ToolUrlType.API)
+                            .orElseThrow(() -> new IllegalStateException("Found no api url for tool with id" + TACTICAL_SERVER_ID));
+
+                    String apiKey = optionalTool.get().getCredentials().getApiKey().getKey();
+                    if (apiKey != null) {
+                        this.tacticalRmmConnection = new TacticalRmmConnection(new TacticalRmmClient(),
+                                toolUrl.getUrl() + ":" + toolUrl.getPort(), apiKey);
+                    }
+                }
+            }
+            return tacticalRmmConnection;
+        }
+    }
+
+    private record TacticalRmmConnection(TacticalRmmClient client, String baseUrl, String apiKey) {
     }
 
     /**
-     * Find agent ID by primary key from the list of agents
-     * 
-     * @param agents list of agents
-     * @param primaryKey the primary key to search for
-     * @return the agent_id, or null if not found
+     * Immutable primary key to agent_id index: primary keys sorted in an int array, looked up by binary search.
      */
-    private String findAgentIdByPrimaryKey(List<AgentListItem> agents, Integer primaryKey) {
-        return agents.stream()
-                .filter(agent -> primaryKey.equals(agent.getPk()))
-                .map(AgentListItem::getAgentId)
-                .findFirst()
-                .orElse(null);
-    }
+    record AgentIndex(int[] primaryKeys, String[] agentIds) {
+
+        static final AgentIndex EMPTY = new AgentIndex(new int[0], new String[0]);
+
+        static AgentIndex of(List<AgentListItem> agents) {
+            List<AgentListItem> indexed = agents.stream()
+                    .filter(agent -> agent.getPk() != null && agent.getAgentId() != null)
+                    .sorted(Comparator.comparingInt(AgentListItem::getPk))
+                    .toList();
+            int[] primaryKeys = new int[indexed.size()];
+            String[] agentIds = new String[indexed.size()];
+            for (int i = 0; i < indexed.size(); i++) {
+                primaryKeys[i] = indexed.get(i).getPk();
+                agentIds[i] = indexed.get(i).getAgentId();
+            }
+            return new AgentIndex(primaryKeys, agentIds);
+        }
 
-    private TacticalRmmClient getTacticalRmmClient() {
-        if (tacticalRmmClient == null) {
-            Optional<IntegratedTool> optionalTool = integratedToolService.getToolById(TACTICAL_SERVER_ID.getValue());
-            log.info("TacticalRmmClient is null, tool info: {}", optionalTool.map(IntegratedTool::getCredentials).orElse(null));
+        String get(int primaryKey) {
+            int position = Arrays.binarySearch(primaryKeys, primaryKey);
+            return position >= 0 ? agentIds[position] : null;
+        }
 
-            if (optionalTool.isPresent()) {
-                ToolUrl toolUrl = toolUrlService.getUrlByToolType(optionalTool.get(), ToolUrlType.API)
-                        .orElseThrow(() -> new IllegalStateException("Found no api url for tool with id" + TACTICAL_SERVER_ID));
+        int size() {
+            return primaryKeys.length;
+        }
 
-                this.tacticalRmmClient = new TacticalRmmClient();
-                this.tacticalApiKey = optionalTool.get().getCredentials().getApiKey().getKey();
-                this.baseUrl = toolUrl.getUrl() + ":" + toolUrl.getPort();
-            }
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof AgentIndex index
+                    && Arrays.equals(primaryKeys, index.primaryKeys)
+                    && Arrays.equals(agentIds, index.agentIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(primaryKeys) + Arrays.hashCode(agentIds);
         }
-        return tacticalRmmClient;
     }
 }
@@ -0,0 +1,79 @@
+package com.openframe.stream.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaAwareTransactionManager;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transactional producer for the exactly-once mode of the batch listener.
+ * The batch listener container runs every poll in a Kafka transaction of this producer
+ * (see KafkaConfig), so the events published while handling the poll and the consumed offsets
+ * are committed atomically and a rebalance replay cannot publish an event twice.
+ *
+ * The producer is deliberately not exposed as a ProducerFactory or KafkaTemplate bean,
+ * so it does not replace the non-transactional template used by the rest of the service.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("${openframe.oss-tenant.kafka.exactly-once.enabled:false} and ${openframe.oss-tenant.kafka.consumer.batch.enabled:false}")
+public class TransactionalEventPublisher {
+
+    private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTransactionManager<String, Object> transactionManager;
+
+    public TransactionalEventPublisher(ObjectMapper objectMapper,
+                                       @Value("${spring.oss-tenant.kafka.bootstrap-servers}") String bootstrapServers,
+                                       @Value("${openframe.oss-tenant.kafka.exactly-once.transaction-id-prefix:${spring.application.name}-${HOSTNAME:local}-tx-}") String transactionIdPrefix) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+
+        JsonSerializer<Object> valueSerializer = new JsonSerializer<>(objectMapper);
+        valueSerializer.setAddTypeInfo(false);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer);
+        this.producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.transactionManager = new KafkaTransactionManager<>(producerFactory);
+        log.info("Exactly-once mode enabled, transactional id prefix: {}", transactionIdPrefix);
+    }
+
+    /**
+     * Send within the transaction of the current poll. Send errors surface when the transaction
+     * commits, which aborts it and redelivers the whole poll.
+     */
+    public void publish(String topic, String key, Object message) {
+        kafkaTemplate.send(topic, key, message);
+    }
+
+    /**
+     * Template bound to the transactional producer; sends from the polling thread join the poll's transaction.
+     */
+    public KafkaTemplate<String, Object> getKafkaTemplate() {
+        return kafkaTemplate;
+    }
+
+    public KafkaAwareTransactionManager<String, Object> getTransactionManager() {
+        return transactionManager;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        producerFactory.destroy();
+    }
+}
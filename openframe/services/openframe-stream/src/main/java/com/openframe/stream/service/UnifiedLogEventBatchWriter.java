@@ -0,0 +1,118 @@
+package com.openframe.stream.service;
+
+import com.openframe.data.model.cassandra.UnifiedLogEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.cql.BatchType;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes UnifiedLogEvents to Cassandra as async unlogged batches.
+ * Events are grouped by partition (ingest day and tool type) so every batch targets a single
+ * partition, split into chunks of at most {@code max-size} and sent with at most
+ * {@code max-in-flight} requests outstanding. When all slots are taken the calling consumer
+ * thread blocks, which back-pressures the Kafka poll loop.
+ */
+@Service
+@Slf4j
+public class UnifiedLogEventBatchWriter {
+
+    private final AsyncCassandraOperations asyncCassandraOperations;
+    private final int maxBatchSize;
+    private final Duration flushTimeout;
+    private final Semaphore inFlightRequests;
+
+    public UnifiedLogEventBatchWriter(AsyncCassandraOperations asyncCassandraOperations,
+                                      @Value("${openframe.oss-tenant.cassandra.batch.max-size:20}") int maxBatchSize,
+                                      @Value("${openframe.oss-tenant.cassandra.batch.max-in-flight:16}") int maxInFlightRequests,
+                                      @Value("${openframe.oss-tenant.cassandra.batch.flush-timeout:30s}") Duration flushTimeout) {
+        this.asyncCassandraOperations = asyncCassandraOperations;
+        this.maxBatchSize = maxBatchSize;
+        this.flushTimeout = flushTimeout;
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+    }
+
+    /**
+     * Write all events and wait until every batch is acknowledged or the flush timeout expires.
+     *
+     * @return events that were not written, empty if the whole flush succeeded
+     */
+    public List<FailedWrite> write(List<UnifiedLogEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<UnifiedLogEvent>> partitions = new LinkedHashMap<>();
+        for (UnifiedLogEvent event : events) {
+            partitions.computeIfAbsent(getPartitionKey(event), key -> new ArrayList<>()).add(event);
+        }
+
+        List<PendingBatch> pendingBatches = new ArrayList<>();
+        for (List<UnifiedLogEvent> partition : partitions.values()) {
+            for (int from = 0; from < partition.size(); from += maxBatchSize) {
+                List<UnifiedLogEvent> chunk = partition.subList(from, Math.min(from + maxBatchSize, partition.size()));
+                pendingBatches.add(new PendingBatch(chunk, submit(chunk)));
+            }
+        }
+
+        List<FailedWrite> failures = new ArrayList<>();
+        long deadline = System.nanoTime() + flushTimeout.toNanos();
+        for (PendingBatch batch : pendingBatches) {
+            try {
+                batch.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.events().forEach(event -> failures.add(new FailedWrite(event, e)));
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception exception ? exception : e;
+                log.error("Failed to write batch of {} log events", batch.events().size(), cause);
+                batch.events().forEach(event -> failures.add(new FailedWrite(event, cause)));
+            } catch (TimeoutException e) {
+                log.error("Timed out after {} writing batch of {} log events", flushTimeout, batch.events().size());
+                batch.events().forEach(event -> failures.add(new FailedWrite(event, e)));
+            }
+        }
+        return failures;
+    }
+
+    private CompletableFuture<?> submit(List<UnifiedLogEvent> chunk) {
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            CompletableFuture<?> future = chunk.size() == 1
+                    ? asyncCassandraOperations.insert(chunk.get(0))
+                    : asyncCassandraOperations.batchOps(BatchType.UNLOGGED).insert(chunk).execute();
+            return future.whenComplete((result, error) -> inFlightRequests.release());
+        } catch (RuntimeException e) {
+            inFlightRequests.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String getPartitionKey(UnifiedLogEvent event) {
+        UnifiedLogEvent.UnifiedLogEventKey key = event.getKey();
+        return key.getIngestDay() + ":" + key.getToolType();
+    }
+
+    public record FailedWrite(UnifiedLogEvent event, Exception error) {
+    }
+
+    private record PendingBatch(List<UnifiedLogEvent> events, CompletableFuture<?> future) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.openframe.stream.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streaming 128-bit MurmurHash3 (x64 variant) used to derive deterministic IDs from event content.
+ * JSON trees are fed through a canonical walk - every value is prefixed with a type tag and every
+ * string and container with its length - so the hash never depends on re-serializing the document
+ * and two different documents cannot produce the same input byte sequence.
+ * <p>
+ * Instances are not thread-safe; create one per hash.
+ */
+public final class ContentHash {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_DECIMAL = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_BINARY = 7;
+    private static final byte TAG_ARRAY = 8;
+    private static final byte TAG_OBJECT = 9;
+
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int buffered;
+    private long length;
+
+    public ContentHash() {
+        this(0);
+    }
+
+    public ContentHash(int seed) {
+        this.h1 = seed & 0xFFFFFFFFL;
+        this.h2 = seed & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Hash of the given strings followed by the canonical form of the JSON tree, as a UUID.
+     */
+    public static UUID uuidOf(JsonNode node, String... prefix) {
+        ContentHash hash = new ContentHash();
+        for (String part : prefix) {
+            hash.putString(part);
+        }
+        return hash.putJson(node).toUuid();
+    }
+
+    public ContentHash putByte(byte b) {
+        long v = b & 0xFFL;
+        int shift = (buffered & 7) * 8;
+        if (buffered < 8) {
+            k1 |= v << shift;
+        } else {
+            k2 |= v << shift;
+        }
+        if (++buffered == 16) {
+            mixBlock();
+        }
+        return this;
+    }
+
+    public ContentHash putInt(int value) {
+        for (int i = 0; i < 4; i++) {
+            putByte((byte) (value >>> (i * 8)));
+        }
+        return this;
+    }
+
+    public ContentHash putLong(long value) {
+        if (buffered == 0) {
+            k1 = value;
+            buffered = 8;
+            return this;
+        }
+        if (buffered == 8) {
+            k2 = value;
+            buffered = 16;
+            mixBlock();
+            return this;
+        }
+        for (int i = 0; i < 8; i++) {
+            putByte((byte) (value >>> (i * 8)));
+        }
+        return this;
+    }
+
+    public ContentHash putBytes(byte[] bytes) {
+        putInt(bytes.length);
+        for (byte b : bytes) {
+            putByte(b);
+        }
+        return this;
+    }
+
+    /**
+     * Length-prefixed UTF-16 code units; hashing chars directly avoids encoding the string to bytes.
+     */
+    public ContentHash putString(String value) {
+        putInt(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            putByte((byte) c);
+            putByte((byte) (c >>> 8));
+        }
+        return this;
+    }
+
+    /**
+     * Feed the JSON tree in document order. Object fields keep their source order, which Debezium
+     * connectors emit deterministically for a given table schema.
+     */
+    public ContentHash putJson(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return putByte(TAG_NULL);
+        }
+        switch (node.getNodeType()) {
+            case BOOLEAN -> putByte(node.booleanValue() ? TAG_TRUE : TAG_FALSE);
+            case NUMBER -> putNumber(node);
+            case STRING -> putByte(TAG_STRING).putString(node.textValue());
+            case BINARY -> putByte(TAG_BINARY).putBytes(binaryValue(node));
+            case ARRAY -> {
+                putByte(TAG_ARRAY).putInt(node.size());
+                for (JsonNode element : node) {
+                    putJson(element);
+                }
+            }
+            case OBJECT -> {
+                putByte(TAG_OBJECT).putInt(node.size());
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    putString(field.getKey());
+                    putJson(field.getValue());
+                }
+            }
+            default -> putByte(TAG_STRING).putString(node.asText());
+        }
+        return this;
+    }
+
+    /**
+     * Finalize the hash. The instance must not be reused afterwards.
+     */
+    public UUID toUuid() {
+        long total = length + buffered;
+        if (buffered > 0) {
+            if (buffered > 8) {
+                h2 ^= mixK2(k2);
+            }
+            h1 ^= mixK1(k1);
+        }
+        h1 ^= total;
+        h2 ^= total;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        // Stamp RFC 9562 version 8 (custom) and the IETF variant so the value is a well-formed UUID
+        long msb = (h1 & ~0xF000L) | 0x8000L;
+        long lsb = (h2 & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private void putNumber(JsonNode node) {
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            putByte(TAG_LONG).putLong(node.longValue());
+        } else if (node.isDouble() || node.isFloat()) {
+            putByte(TAG_DOUBLE).putLong(Double.doubleToLongBits(node.doubleValue()));
+        } else {
+            putByte(TAG_DECIMAL).putString(node.asText());
+        }
+    }
+
+    private static byte[] binaryValue(JsonNode node) {
+        try {
+            return node.binaryValue();
+        } catch (IOException e) {
+            return node.asText().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private void mixBlock() {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        k1 = 0;
+        k2 = 0;
+        buffered = 0;
+        length += 16;
+    }
+
+    private static long mixK1(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        return k * C2;
+    }
+
+    private static long mixK2(long k) {
+        k *= C2;
+        k = Long.rotateLeft(k, 33);
+        return k * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,54 @@
+package com.openframe.stream.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single-pass extraction of top-level fields from a JSON document using Jackson's streaming parser.
+ * Only the requested fields are materialized as trees; every other value is skipped without being
+ * built, and parsing stops as soon as all requested fields have been seen.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StreamingFieldExtractor {
+
+    /**
+     * @return object holding the requested fields that are present, or empty if the input is not a JSON object
+     */
+    public static Optional<ObjectNode> extractFields(ObjectMapper mapper, String json, Set<String> fieldNames) {
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Optional.empty();
+            }
+            ObjectNode fields = mapper.createObjectNode();
+            int remaining = fieldNames.size();
+            while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (fieldNames.contains(fieldName) && !fields.has(fieldName)) {
+                    JsonNode value = mapper.readTree(parser);
+                    if (value != null) {
+                        fields.set(fieldName, value);
+                    }
+                    remaining--;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return Optional.of(fields);
+        } catch (IOException e) {
+            log.error("Failed to extract fields {} from JSON: {}", fieldNames, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -7,22 +7,161 @@ import lombok.extern.slf4j.Slf4j;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for parsing timestamps from integrated tools via Debezium CDC.
  * Debezium converts all database timestamps to ISO 8601 format.
+ * <p>
+ * The fixed Debezium shape {@code yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:mm)} is parsed by hand
+ * without intermediate objects; anything else (leap seconds, extended years, lowercase designators, ...)
+ * goes through {@link Instant#parse}. Failures are logged at most once per interval with a suppressed count.
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class TimestampParser {
 
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private static final AtomicLong lastFailureLog = new AtomicLong(System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS);
+    private static final AtomicLong suppressedFailures = new AtomicLong();
+
     public static Optional<Long> parseIso8601(String timestamp) {
+        if (timestamp == null) {
+            return Optional.empty();
+        }
+        long epochMilli = parseFast(timestamp);
+        if (epochMilli != NOT_PARSED) {
+            return Optional.of(epochMilli);
+        }
         try {
-            Instant instant = Instant.parse(timestamp);
-            return Optional.of(instant.toEpochMilli());
-        } catch (DateTimeParseException e) {
-            log.warn("Failed to parse ISO 8601 timestamp: {}", timestamp, e);
+            return Optional.of(Instant.parse(timestamp).toEpochMilli());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            logFailure(timestamp, e);
             return Optional.empty();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @return epoch millis, or {@link #NOT_PARSED} if the input is not in the fixed Debezium shape
+     */
+    private static long parseFast(String s) {
+        int length = s.length();
+        if (length < 20 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return NOT_PARSED;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_PARSED;
+        }
+
+        int pos = 19;
+        int millis = 0;
+        if (s.charAt(pos) == '.') {
+            int start = ++pos;
+            while (pos < length && isDigit(s.charAt(pos))) {
+                if (pos - start < 3) {
+                    millis = millis * 10 + (s.charAt(pos) - '0');
+                }
+                pos++;
+            }
+            int fractionDigits = pos - start;
+            if (fractionDigits == 0 || fractionDigits > 9) {
+                return NOT_PARSED;
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        int offsetSeconds = parseOffset(s, pos);
+        if (offsetSeconds == Integer.MIN_VALUE) {
+            return NOT_PARSED;
+        }
+        long epochSecond = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second - offsetSeconds;
+        return epochSecond * 1_000L + millis;
+    }
+
+    /**
+     * @return offset in seconds, or Integer.MIN_VALUE if the rest of the input is not Z or +HH:mm
+     */
+    private static int parseOffset(String s, int pos) {
+        int remaining = s.length() - pos;
+        char c = remaining > 0 ? s.charAt(pos) : 0;
+        if (c == 'Z') {
+            return remaining == 1 ? 0 : Integer.MIN_VALUE;
+        }
+        if (c != '+' && c != '-') {
+            return Integer.MIN_VALUE;
+        }
+        if (remaining != 6 || s.charAt(pos + 3) != ':') {
+            return Integer.MIN_VALUE;
+        }
+        int hours = digits(s, pos + 1, 2);
+        int minutes = digits(s, pos + 4, 2);
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59 || (hours == 18 && minutes > 0)) {
+            return Integer.MIN_VALUE;
+        }
+        int offset = hours * 3_600 + minutes * 60;
+        return c == '-' ? -offset : offset;
+    }
+
+    /**
+     * @return the non-negative value of {@code count} ASCII digits starting at {@code from}, or -1 on a non-digit
+     */
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (civil-from-days inverse, years 0000-9999).
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private static void logFailure(String timestamp, RuntimeException e) {
+        long now = System.nanoTime();
+        long last = lastFailureLog.get();
+        if (now - last >= FAILURE_LOG_INTERVAL_NANOS && lastFailureLog.compareAndSet(last, now)) {
+            log.warn("Failed to parse ISO 8601 timestamp: {} ({}); {} similar failures suppressed in the last minute",
+                    timestamp, e.getMessage(), suppressedFailures.getAndSet(0));
+        } else {
+            suppressedFailures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.openframe.stream.processor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void executeOrdered_KeepsOrderPerKey() {
+        List<Item> items = IntStream.range(0, 1_000).mapToObj(i -> new Item("device-" + (i % 37), i)).toList();
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        executor.executeOrdered(items, Item::key, lane -> lane.forEach(item ->
+                seen.computeIfAbsent(item.key(), key -> Collections.synchronizedList(new ArrayList<>())).add(item.sequence())));
+
+        Map<String, List<Integer>> expected = new HashMap<>();
+        items.forEach(item -> expected.computeIfAbsent(item.key(), key -> new ArrayList<>()).add(item.sequence()));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void executeOrdered_PutsEqualKeysOnOneLane() {
+        List<Item> items = IntStream.range(0, 200).mapToObj(i -> new Item("device-" + (i % 11), i)).toList();
+        ConcurrentLinkedQueue<List<Item>> lanes = new ConcurrentLinkedQueue<>();
+
+        executor.executeOrdered(items, Item::key, lanes::add);
+
+        Set<String> keys = new HashSet<>();
+        for (List<Item> lane : lanes) {
+            Set<String> laneKeys = lane.stream().map(Item::key).collect(Collectors.toSet());
+            laneKeys.forEach(key -> assertTrue(keys.add(key), "key " + key + " split across lanes"));
+        }
+        assertEquals(items.size(), lanes.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void executeUnordered_HandsOutEveryItemOnce() {
+        List<Integer> items = IntStream.range(0, 103).boxed().toList();
+        ConcurrentLinkedQueue<Integer> seen = new ConcurrentLinkedQueue<>();
+
+        executor.executeUnordered(items, seen::addAll);
+
+        assertEquals(items, seen.stream().sorted().toList());
+    }
+
+    @Test
+    void executeOrdered_PropagatesLaneFailure() {
+        List<Item> items = IntStream.range(0, 20).mapToObj(i -> new Item("device-" + i, i)).toList();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                executor.executeOrdered(items, Item::key, lane -> {
+                    if (lane.stream().anyMatch(item -> item.sequence() == 7)) {
+                        throw new IllegalArgumentException("boom");
+                    }
+                }));
+        assertEquals("boom", error.getCause().getMessage());
+    }
+
+    private record Item(String key, int sequence) {
+    }
+}
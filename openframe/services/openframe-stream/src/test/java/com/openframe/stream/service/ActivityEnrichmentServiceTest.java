@@ -0,0 +1,130 @@
+package com.openframe.stream.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openframe.stream.config.KafkaStreamsConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityEnrichmentServiceTest {
+
+    private static final String ACTIVITIES_TOPIC = "fleet-activities";
+    private static final String HOST_ACTIVITIES_TOPIC = "fleet-host-activities";
+    private static final String EVENTS_TOPIC = "fleet-events";
+    private static final Instant T0 = Instant.parse("2024-03-13T12:00:00Z");
+    private static final Duration GRACE = Duration.ofSeconds(30);
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(1);
+
+    @TempDir
+    Path stateDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> activities;
+    private TestInputTopic<String, String> hostActivities;
+    private TestOutputTopic<String, String> events;
+
+    @BeforeEach
+    void setUp() {
+        KafkaStreamsConfig config = new KafkaStreamsConfig(objectMapper);
+        ActivityEnrichmentService service = new ActivityEnrichmentService(
+                config.activityMessageSerde(),
+                config.outgoingActivityMessageSerde(),
+                config.hostActivityMessageSerde(),
+                config.internalActivityMessageSerde(),
+                config.internalHostActivityMessageSerde(),
+                ACTIVITIES_TOPIC, HOST_ACTIVITIES_TOPIC, EVENTS_TOPIC,
+                ActivityEnrichmentService.JoinMode.TABLE, GRACE, RETRY_INTERVAL);
+        StreamsBuilder builder = new StreamsBuilder();
+        service.buildActivityEnrichmentStream(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "activity-enrichment-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(builder.build(), props, T0);
+
+        activities = driver.createInputTopic(ACTIVITIES_TOPIC, new StringSerializer(), new StringSerializer());
+        hostActivities = driver.createInputTopic(HOST_ACTIVITIES_TOPIC, new StringSerializer(), new StringSerializer());
+        events = driver.createOutputTopic(EVENTS_TOPIC, new StringDeserializer(), new StringDeserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void tableJoin_EnrichesActivityWhoseHostActivityIsProducedLater() throws Exception {
+        activities.pipeInput("1", activity(7), T0);
+        assertTrue(events.isEmpty());
+
+        hostActivities.pipeInput("1", hostActivity(7, 42), T0.plusSeconds(1));
+        driver.advanceWallClockTime(RETRY_INTERVAL);
+
+        List<String> emitted = events.readValuesToList();
+        assertEquals(1, emitted.size());
+        JsonNode after = objectMapper.readTree(emitted.get(0)).path("payload").path("after");
+        assertEquals(7, after.path("id").asInt());
+        assertEquals(42, after.path("hostId").asInt());
+        assertEquals("42", after.path("agentId").asText());
+    }
+
+    @Test
+    void tableJoin_EnrichesActivityRightAwayWhenHostActivityIsKnown() throws Exception {
+        hostActivities.pipeInput("1", hostActivity(7, 42), T0);
+        activities.pipeInput("1", activity(7), T0.plusSeconds(1));
+
+        List<String> emitted = events.readValuesToList();
+        assertEquals(1, emitted.size());
+        assertEquals(42, objectMapper.readTree(emitted.get(0)).path("payload").path("after").path("hostId").asInt());
+    }
+
+    @Test
+    void tableJoin_EmitsUnenrichedActivityAfterGrace() throws Exception {
+        activities.pipeInput("1", activity(7), T0);
+
+        driver.advanceWallClockTime(GRACE.minus(RETRY_INTERVAL));
+        assertTrue(events.isEmpty());
+
+        driver.advanceWallClockTime(RETRY_INTERVAL);
+        List<String> emitted = events.readValuesToList();
+        assertEquals(1, emitted.size());
+        JsonNode after = objectMapper.readTree(emitted.get(0)).path("payload").path("after");
+        assertEquals(7, after.path("id").asInt());
+        assertTrue(after.path("hostId").isNull() || after.path("hostId").isMissingNode());
+    }
+
+    private static String activity(int id) {
+        return """
+                {"schema": null, "payload": {"before": null, "after": {"id": %d, "activity_type": "ran_script", "streamed": 0}, "op": "c"}}
+                """.formatted(id);
+    }
+
+    private static String hostActivity(int activityId, int hostId) {
+        return """
+                {"schema": null, "payload": {"before": null, "after": {"host_id": %d, "activity_id": %d}, "op": "c"}}
+                """.formatted(hostId, activityId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.openframe.stream.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContentHashTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * MurmurHash3_x128_64 reference values (seed 0) with the version 8 / IETF variant bits stamped in.
+     * "The quick brown fox..." is the published 6c1b07bc7bbc4be347939ac4a93c437a.
+     */
+    @Test
+    void toUuid_MatchesMurmur3ReferenceVectors() {
+        assertEquals(UUID.fromString("00000000-0000-8000-8000-000000000000"), hashBytes(""));
+        assertEquals(UUID.fromString("85555565-f659-8889-a6b5-3a48510e895a"), hashBytes("a"));
+        assertEquals(UUID.fromString("cbd8a7b3-41bd-8b02-9b1e-906a48ae1d19"), hashBytes("hello"));
+        assertEquals(UUID.fromString("4be06d94-cf4a-81a7-87c3-5b5c63a708da"), hashBytes("0123456789abcdef"));
+        assertEquals(UUID.fromString("8e32612d-aa45-89de-8800-f4c206c372ee"), hashBytes("0123456789abcdefg"));
+        assertEquals(UUID.fromString("e34bbc7b-bc07-8b6c-ba43-3ca9c49a9347"),
+                hashBytes("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void toUuid_IsVersion8IetfVariant() {
+        UUID uuid = hashBytes("hello");
+
+        assertEquals(8, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void putLong_EqualsLittleEndianBytesAtAnyOffset() {
+        long value = 0x0123456789abcdefL;
+        for (int offset = 0; offset < 16; offset++) {
+            ContentHash viaLong = new ContentHash();
+            ContentHash viaBytes = new ContentHash();
+            for (int i = 0; i < offset; i++) {
+                viaLong.putByte((byte) i);
+                viaBytes.putByte((byte) i);
+            }
+            viaLong.putLong(value);
+            for (int i = 0; i < 8; i++) {
+                viaBytes.putByte((byte) (value >>> (i * 8)));
+            }
+            assertEquals(viaBytes.toUuid(), viaLong.toUuid(), "offset " + offset);
+        }
+    }
+
+    /**
+     * Pins the canonical JSON walk: a change here changes every fallback toolEventId already stored.
+     */
+    @Test
+    void uuidOf_IsStableForKnownDocument() throws Exception {
+        JsonNode after = objectMapper.readTree("""
+                {"id":42,"name":"host-1","tags":["a","b"],"ratio":0.5,"active":true,"note":null}""");
+
+        assertEquals(UUID.fromString("0f19fa83-ff38-820e-a595-570b3315130a"), ContentHash.uuidOf(after, "meshcentral", "events"));
+        assertEquals(ContentHash.uuidOf(after, "meshcentral", "events"),
+                ContentHash.uuidOf(objectMapper.readTree(after.toString()), "meshcentral", "events"));
+    }
+
+    @Test
+    void uuidOf_DistinguishesTypesAndBoundaries() throws Exception {
+        assertNotEquals(uuidOf("{\"a\":1}"), uuidOf("{\"a\":\"1\"}"));
+        assertNotEquals(uuidOf("{\"a\":null}"), uuidOf("{\"a\":\"\"}"));
+        assertNotEquals(uuidOf("{\"a\":true}"), uuidOf("{\"a\":1}"));
+        assertNotEquals(uuidOf("[\"ab\",\"c\"]"), uuidOf("[\"a\",\"bc\"]"));
+        assertNotEquals(uuidOf("[[1],2]"), uuidOf("[[1,2]]"));
+        assertNotEquals(ContentHash.uuidOf(objectMapper.readTree("{}"), "ab", "c"),
+                ContentHash.uuidOf(objectMapper.readTree("{}"), "a", "bc"));
+    }
+
+    private UUID uuidOf(String json) throws Exception {
+        return ContentHash.uuidOf(objectMapper.readTree(json));
+    }
+
+    private static UUID hashBytes(String input) {
+        ContentHash hash = new ContentHash();
+        for (byte b : input.getBytes(StandardCharsets.UTF_8)) {
+            hash.putByte(b);
+        }
+        return hash.toUuid();
+    }
+}
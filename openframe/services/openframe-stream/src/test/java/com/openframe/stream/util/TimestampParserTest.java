@@ -0,0 +1,104 @@
+package com.openframe.stream.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimestampParserTest {
+
+    private static final List<String> OFFSETS = List.of("Z", "+00:00", "+05:30", "-03:00", "+14:00", "-18:00", "+18:00");
+
+    @Test
+    void parseIso8601_MatchesInstantParseForDebeziumShapes() {
+        List<String> dates = List.of(
+                "1970-01-01T00:00:00",
+                "1969-12-31T23:59:59",
+                "1900-02-28T12:34:56",
+                "0001-01-01T00:00:00",
+                "2000-02-29T23:59:59",
+                "2024-02-29T08:15:00",
+                "2025-06-30T18:45:07",
+                "9999-12-31T23:59:59");
+        for (String date : dates) {
+            for (String fraction : fractions()) {
+                for (String offset : OFFSETS) {
+                    assertMatchesInstantParse(date + fraction + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    void parseIso8601_MatchesInstantParseForRandomInstants() {
+        Random random = new Random(42);
+        // 1800-01-01 to 2200-01-01
+        long min = -5_364_662_400L;
+        long max = 7_258_118_400L;
+        for (int i = 0; i < 10_000; i++) {
+            long epochSecond = min + (long) (random.nextDouble() * (max - min));
+            int nanos = random.nextInt(1_000_000_000);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(37) - 18) * 1_800);
+            String text = OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), offset)
+                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            assertMatchesInstantParse(text);
+        }
+    }
+
+    @Test
+    void parseIso8601_TruncatesFractionToMillis() {
+        assertEquals(Optional.of(-1L), TimestampParser.parseIso8601("1969-12-31T23:59:59.999999999Z"));
+        assertEquals(Optional.of(-500L), TimestampParser.parseIso8601("1969-12-31T23:59:59.5Z"));
+        assertEquals(Optional.of(123L), TimestampParser.parseIso8601("1970-01-01T00:00:00.123456789Z"));
+    }
+
+    @Test
+    void parseIso8601_FallsBackToInstantParseOutsideDebeziumShape() {
+        assertMatchesInstantParse("2016-12-31T23:59:60Z");
+        assertMatchesInstantParse("+10000-01-01T00:00:00Z");
+        assertMatchesInstantParse("2024-01-15t10:30:00z");
+        assertMatchesInstantParse("2024-01-15T10:30:00.Z");
+        assertMatchesInstantParse("2024-01-15T10:30:00+05:30:15");
+        assertMatchesInstantParse("2024-01-15T24:00:00Z");
+    }
+
+    @Test
+    void parseIso8601_ReturnsEmptyForInvalidInput() {
+        List<String> invalid = List.of(
+                "",
+                "not-a-timestamp",
+                "2024-01-15",
+                "2024-01-15T10:30:00",
+                "2024-01-15T10:30:00.1234567890Z",
+                "2024-13-01T00:00:00Z",
+                "2023-02-29T00:00:00Z",
+                "2024-04-31T00:00:00Z",
+                "2024-01-15T10:60:00Z",
+                "2024-01-15T10:30:00+19:00",
+                "2024-01-15T10:30:00+18:30",
+                "2024-01-15T10:30:00ZZ",
+                "2024-01-15T10:30Z",
+                "2024-01-15 10:30:00Z",
+                "2024-0a-15T10:30:00Z");
+        for (String text : invalid) {
+            assertEquals(Optional.empty(), TimestampParser.parseIso8601(text), text);
+        }
+        assertEquals(Optional.empty(), TimestampParser.parseIso8601(null));
+    }
+
+    private static List<String> fractions() {
+        return List.of("", ".1", ".12", ".123", ".1234", ".12345", ".123456", ".1234567", ".12345678", ".123456789",
+                ".000", ".999", ".000000001");
+    }
+
+    private static void assertMatchesInstantParse(String text) {
+        assertEquals(Optional.of(Instant.parse(text).toEpochMilli()), TimestampParser.parseIso8601(text), text);
+    }
+}